@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// ឆ្លើយតបជាទម្រង់ CBOR (application/cbor) នៅពេល client ស្នើតាម Accept header
+// Converter សរសេរដោយផ្ទាល់ទៅ output stream ដូច JSON ដែរ
+// STRINGREF (tag 256/25): ឈ្មោះ field និង string ដែលដដែលៗ ត្រូវបានសរសេរតែម្តង ហើយបន្ទាប់មកយោងតាម index
+// client ត្រូវតែគាំទ្រ stringref tag (ឧ. Jackson 2.15+, cbor-x, fxamacker/cbor)
+@Configuration
+public class CborConfig {
+
+    // Jackson2ObjectMapperBuilder ជា prototype bean ដូច្នេះការកំណត់ (JavaTimeModule ...) ដូច JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                builder.factory(CBORFactory.builder()
+                        .enable(CBORGenerator.Feature.STRINGREF)
+                        .build()).build());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.ShardedStudentRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// បើក sharding តែនៅពេល app.sharding.enabled=true ប៉ុណ្ណោះ
+// កម្រិត: មានតែតារាង students ប៉ុណ្ណោះដែលត្រូវបានបែងចែក ការចុះឈ្មោះ (student_courses) នៅតែក្នុង DB ចម្បង
+// ហើយ global id (localId * N + shard) មិនត្រូវនឹង student id ក្នុង DB ចម្បងទេ ដូច្នេះក្នុង mode នេះ
+// និស្សិតមិនមាន courses, របាយការណ៍គ្មានជួរឈរវគ្គសិក្សា ហើយ /api/courses/student-totals មិនអាចប្រើបាន
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // shutdown() បញ្ឈប់ executor ហើយបិទ connection pool របស់ shard ទាំងអស់
+    @Bean(destroyMethod = "shutdown")
+    public ShardedStudentRepository shardedStudentRepository(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.shards មិនអាចទទេបានទេ");
+        }
+        List<DataSource> dataSources = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            DataSourceBuilder<?> builder = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                builder.driverClassName(shard.getDriverClassName());
+            }
+            dataSources.add(builder.build());
+        }
+        return new ShardedStudentRepository(dataSources, properties.getQueryThreads(),
+                ShardedStudentRepository.collationOrder(properties.getSortCollation()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ការកំណត់សម្រាប់ sharding តារាង students (app.sharding.*)
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // ចំនួន thread សម្រាប់ scatter-gather (0 = ស្មើចំនួន shard)
+    private int queryThreads = 0;
+
+    // Collation សម្រាប់ merge តម្រៀប string ត្រូវតែដូច collation របស់ column ក្នុង DB
+    // "root" (ឬ locale tag) = មិនខ្វល់ពីអក្សរធំតូច/សញ្ញាសំឡេង ដូច utf8mb4_0900_ai_ci, "binary" = តាម code point
+    private String sortCollation = "root";
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getQueryThreads() { return queryThreads; }
+    public void setQueryThreads(int queryThreads) { this.queryThreads = queryThreads; }
+
+    public String getSortCollation() { return sortCollation; }
+    public void setSortCollation(String sortCollation) { this.sortCollation = sortCollation; }
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+}
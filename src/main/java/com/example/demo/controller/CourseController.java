@@ -0,0 +1,60 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.ShardedStudentRepository;
+import com.example.demo.service.CourseCatalogService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/courses")
+@CrossOrigin(origins = "*") // សម្រាប់ CORS
+@Validated
+public class CourseController {
+
+    private final CourseCatalogService courseCatalogService;
+    private final boolean sharded;
+
+    public CourseController(CourseCatalogService courseCatalogService,
+                            ObjectProvider<ShardedStudentRepository> shardedStudentRepository) {
+        this.courseCatalogService = courseCatalogService;
+        this.sharded = shardedStudentRepository.getIfAvailable() != null;
+    }
+
+    // GET - យកវគ្គសិក្សាទាំងអស់ (ពីកាតាឡុកក្នុង memory)
+    @GetMapping
+    public ResponseEntity<List<CourseCatalogService.CourseEntry>> getAllCourses() {
+        return new ResponseEntity<>(courseCatalogService.getAllCourses(), HttpStatus.OK);
+    }
+
+    // GET - យកវគ្គសិក្សាតាមកូដ
+    @GetMapping("/code/{courseCode}")
+    public ResponseEntity<CourseCatalogService.CourseEntry> getCourseByCode(@PathVariable String courseCode) {
+        Optional<CourseCatalogService.CourseEntry> course = courseCatalogService.getCourseByCode(courseCode);
+        return course.map(c -> new ResponseEntity<>(c, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // GET - សរុបឥណទាន និងថ្លៃសិក្សាសម្រាប់និស្សិតច្រើននាក់ (ឧ. ?studentIds=1,2,3)
+    @GetMapping("/student-totals")
+    public ResponseEntity<?> getStudentTotals(@RequestParam List<Long> studentIds) {
+        // ក្នុង sharding mode ID និស្សិតជា global id ដែលមិនត្រូវនឹង student_courses ក្នុង DB ចម្បង
+        if (sharded) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "មិនអាចប្រើបានក្នុង sharding mode ទេ");
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_IMPLEMENTED);
+        }
+        try {
+            return new ResponseEntity<>(courseCatalogService.getTotalsForStudents(studentIds), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
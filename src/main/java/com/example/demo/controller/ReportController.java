@@ -0,0 +1,136 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.ReportJob;
+import com.example.demo.service.ReportJobService;
+import jakarta.validation.constraints.Min;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*") // សម្រាប់ CORS
+@Validated
+public class ReportController {
+
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final ReportJobService reportJobService;
+
+    public ReportController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    // POST - ដាក់ការងាររបាយការណ៍ (major ស្រេចចិត្ត, format = csv ឬ xlsx)
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitReport(
+            @RequestParam(required = false) String major,
+            @RequestParam(defaultValue = "csv") String format) {
+        try {
+            ReportJob.Format reportFormat = ReportJob.Format.valueOf(format.toUpperCase(Locale.ROOT));
+            ReportJob job = reportJobService.submitReport(major, reportFormat);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "បានដាក់ការងាររបាយការណ៍");
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "ទម្រង់មិនត្រឹមត្រូវ: " + format);
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "មានបញ្ហាកើតឡើងក្នុងការដាក់ការងារ");
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // GET - ស្ថានភាព និងវឌ្ឍនភាពនៃការងារ
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable @Min(1) Long id) {
+        try {
+            Optional<ReportJob> found = reportJobService.getJob(id);
+            if (found.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            ReportJob job = found.get();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("jobId", job.getId());
+            response.put("major", job.getMajor());
+            response.put("format", job.getFormat());
+            response.put("status", job.getStatus());
+            response.put("processedRows", job.getProcessedRows());
+            response.put("totalRows", job.getTotalRows());
+            response.put("progress", job.getTotalRows() == null || job.getTotalRows() == 0
+                    ? (job.getStatus() == ReportJob.Status.COMPLETED ? 100.0 : 0.0)
+                    : Math.min(100.0, 100.0 * job.getProcessedRows() / job.getTotalRows()));
+            response.put("error", job.getErrorMessage());
+            response.put("createdAt", job.getCreatedAt());
+            response.put("updatedAt", job.getUpdatedAt());
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // POST - ដាក់ការងារដែលបរាជ័យឡើងវិញ
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<Map<String, Object>> retryJob(@PathVariable @Min(1) Long id) {
+        try {
+            ReportJob job = reportJobService.retryJob(id);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "បានដាក់ការងារឡើងវិញ");
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // GET - ទាញយករបាយការណ៍ដែលបានបញ្ចប់
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable @Min(1) Long id) {
+        try {
+            Path file = reportJobService.getReportFile(id);
+            boolean csv = file.getFileName().toString().endsWith(".csv");
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(csv ? new MediaType("text", "csv") : XLSX);
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(file.getFileName().toString())
+                    .build());
+
+            return new ResponseEntity<>(new FileSystemResource(file), headers, HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
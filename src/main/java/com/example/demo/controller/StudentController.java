@@ -3,11 +3,14 @@ package com.example.demo.controller;
 //import com.example.demo.entity.Student;
 import com.example.demo.entity.*;
 //import com.ict.studentmanagementsystem.service.StudentService;
+import com.example.demo.repository.InvalidFieldsException;
+import com.example.demo.repository.StudentFields;
 import com.example.demo.service.StudentService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -29,11 +32,15 @@ public class StudentController {
         this.studentService = studentService;
     }
 
-    // GET - យកនិស្សិតទាំងអស់
+    // GET - យកនិស្សិតទាំងអស់ (fields= ដើម្បីយកតែ field ខ្លះ ឧ. fields=name,email,major)
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
+    public ResponseEntity<?> getAllStudents(@RequestParam(required = false) String fields) {
+        List<String> selectedFields = StudentFields.parseOptional(fields);
+
         try {
-            List<Student> students = studentService.getAllStudents();
+            List<?> students = selectedFields == null
+                    ? studentService.getAllStudents()
+                    : studentService.getAllStudentFields(selectedFields);
             if (students.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
@@ -43,16 +50,23 @@ public class StudentController {
         }
     }
 
-    // GET - យកនិស្សិតជាមួយ Pagination
-    @GetMapping("/paginated")
+    // GET - យកនិស្សិតជាមួយ Pagination (JSON ឬ CBOR តាម Accept header)
+    @GetMapping(value = "/paginated",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Map<String, Object>> getAllStudentsPaginated(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String fields) {
+
+        List<String> selectedFields = StudentFields.parseOptional(fields);
 
         try {
-            Page<Student> pageStudents = studentService.getAllStudentsPaginated(page, size, sortBy, sortDir);
+            Page<?> pageStudents = selectedFields == null
+                    ? studentService.getAllStudentsPaginated(page, size, sortBy, sortDir)
+                    : studentService.getStudentFieldsPaginated(
+                            selectedFields, page, size, sortBy, sortDir);
 
             Map<String, Object> response = new HashMap<>();
             response.put("students", pageStudents.getContent());
@@ -69,11 +83,16 @@ public class StudentController {
         }
     }
 
-    // GET - យកនិស្សិតតាម ID
+    // GET - យកនិស្សិតតាម ID (fields= ស្រេចចិត្ត)
     @GetMapping("/{id}")
-    public ResponseEntity getStudentById(@PathVariable @Min(1) Long id) {
+    public ResponseEntity getStudentById(@PathVariable @Min(1) Long id,
+                                         @RequestParam(required = false) String fields) {
+        List<String> selectedFields = StudentFields.parseOptional(fields);
+
         try {
-            Optional student = studentService.getStudentById(id);
+            Optional student = selectedFields == null
+                    ? studentService.getStudentById(id)
+                    : studentService.getStudentFieldsById(id, selectedFields);
             if (student.isPresent()) {
                 return new ResponseEntity<>(student.get(), HttpStatus.OK);
             } else {
@@ -170,9 +189,14 @@ public class StudentController {
 
     // GET - ស្វែងរកនិស្សិតតាមឈ្មោះ
     @GetMapping("/search/name")
-    public ResponseEntity<List<Student>> searchStudentsByName(@RequestParam String name) {
+    public ResponseEntity<?> searchStudentsByName(@RequestParam String name,
+                                                  @RequestParam(required = false) String fields) {
+        List<String> selectedFields = StudentFields.parseOptional(fields);
+
         try {
-            List<Student> students = studentService.searchStudentsByName(name);
+            List<?> students = selectedFields == null
+                    ? studentService.searchStudentsByName(name)
+                    : studentService.searchStudentFieldsByName(name, selectedFields);
             return new ResponseEntity<>(students, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -181,17 +205,23 @@ public class StudentController {
 
     // GET - យកនិស្សិតតាមជំនាញ
     @GetMapping("/major/{major}")
-    public ResponseEntity<List<Student>> getStudentsByMajor(@PathVariable String major) {
+    public ResponseEntity<?> getStudentsByMajor(@PathVariable String major,
+                                                @RequestParam(required = false) String fields) {
+        List<String> selectedFields = StudentFields.parseOptional(fields);
+
         try {
-            List<Student> students = studentService.getStudentsByMajor(major);
+            List<?> students = selectedFields == null
+                    ? studentService.getStudentsByMajor(major)
+                    : studentService.getStudentFieldsByMajor(major, selectedFields);
             return new ResponseEntity<>(students, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    // GET - ស្វែងរកស្មុគស្មាញ
-    @GetMapping("/search")
+    // GET - ស្វែងរកស្មុគស្មាញ (JSON ឬ CBOR តាម Accept header)
+    @GetMapping(value = "/search",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Map<String, Object>> searchStudents(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String major,
@@ -199,10 +229,16 @@ public class StudentController {
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String fields) {
+
+        List<String> selectedFields = StudentFields.parseOptional(fields);
 
         try {
-            Page<Student> pageStudents = studentService.searchStudents(name, major, email, page, size, sortBy, sortDir);
+            Page<?> pageStudents = selectedFields == null
+                    ? studentService.searchStudents(name, major, email, page, size, sortBy, sortDir)
+                    : studentService.searchStudentFields(name, major, email,
+                            selectedFields, page, size, sortBy, sortDir);
 
             Map<String, Object> response = new HashMap<>();
             response.put("students", pageStudents.getContent());
@@ -228,6 +264,7 @@ public class StudentController {
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalStudents", studentService.getTotalStudents());
             stats.put("recentStudents", studentService.getRecentStudents());
+            stats.put("coalescing", studentService.getCoalescingStats());
 
             return new ResponseEntity<>(stats, HttpStatus.OK);
         } catch (Exception e) {
@@ -247,4 +284,12 @@ public class StudentController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // fields= មិនត្រឹមត្រូវ (បំប្លែងមុន try ដូច្នេះវាមកដល់ទីនេះ)
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidFields(InvalidFieldsException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+}
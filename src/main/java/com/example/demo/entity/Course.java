@@ -1,5 +1,6 @@
 package com.ict.studentmanagementsystem.entity;
 
+import com.example.demo.service.CourseCatalogListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -9,6 +10,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "courses")
+@EntityListeners(CourseCatalogListener.class)
 public class Course {
 
     @Id
@@ -0,0 +1,124 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// ការងារបង្កើតរបាយការណ៍ (ដំណើរការនៅខាងក្រោយ)
+// lastStudentId និង fileOffset ត្រូវបានរក្សាទុកក្រោយ chunk នីមួយៗ ដើម្បីបន្តបានក្រោយពេលគាំង
+@Entity
+@Table(name = "report_jobs")
+public class ReportJob {
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    public enum Format { CSV, XLSX }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // null = ជំនាញទាំងអស់
+    @Column(name = "major", length = 50)
+    private String major;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 10)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "last_student_id")
+    private Long lastStudentId = 0L;
+
+    @Column(name = "file_offset")
+    private Long fileOffset = 0L;
+
+    @Column(name = "processed_rows")
+    private Long processedRows = 0L;
+
+    @Column(name = "total_rows")
+    private Long totalRows;
+
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ReportJob() {}
+
+    public ReportJob(String major, Format format) {
+        this.major = major;
+        this.format = format;
+        this.status = Status.PENDING;
+    }
+
+    // Lifecycle Callbacks
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getMajor() { return major; }
+    public void setMajor(String major) { this.major = major; }
+
+    public Format getFormat() { return format; }
+    public void setFormat(Format format) { this.format = format; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getLastStudentId() { return lastStudentId; }
+    public void setLastStudentId(Long lastStudentId) { this.lastStudentId = lastStudentId; }
+
+    public Long getFileOffset() { return fileOffset; }
+    public void setFileOffset(Long fileOffset) { this.fileOffset = fileOffset; }
+
+    public Long getProcessedRows() { return processedRows; }
+    public void setProcessedRows(Long processedRows) { this.processedRows = processedRows; }
+
+    public Long getTotalRows() { return totalRows; }
+    public void setTotalRows(Long totalRows) { this.totalRows = totalRows; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public String toString() {
+        return "ReportJob{" +
+                "id=" + id +
+                ", major='" + major + '\'' +
+                ", format=" + format +
+                ", status=" + status +
+                ", processedRows=" + processedRows +
+                '}';
+    }
+}
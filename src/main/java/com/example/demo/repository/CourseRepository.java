@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Course;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    // ស្វែងរកវគ្គសិក្សាតាមកូដ
+    Optional<Course> findByCourseCode(String courseCode);
+
+    // យកគូ (student_id, course_id) ពីតារាង student_courses សម្រាប់និស្សិតច្រើននាក់
+    @Query(value = "SELECT sc.student_id, sc.course_id FROM student_courses sc " +
+            "WHERE sc.student_id IN (:studentIds)",
+            nativeQuery = true)
+    List<Object[]> findCourseIdsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+}
@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+// ប៉ារ៉ាម៉ែត្រ fields= មាន field ដែលមិនអនុញ្ញាត ឬទទេ
+public class InvalidFieldsException extends IllegalArgumentException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    // ស្វែងរកការងារដែលមិនទាន់បញ្ចប់ (សម្រាប់បន្តក្រោយពេលចាប់ផ្តើមឡើងវិញ)
+    List<ReportJob> findByStatusInOrderByIdAsc(Collection<ReportJob.Status> statuses);
+}
@@ -0,0 +1,499 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// រក្សាទុកនិស្សិតលើ DataSource ច្រើន (shard)
+// - និស្សិតថ្មីត្រូវបានដាក់លើ shard តាម hash នៃអ៊ីមែល
+// - ID សកល = localId * N + shardIndex ដូច្នេះការស្វែងរកតាម ID ទៅ shard តែមួយ
+// - ការស្វែងរក និង Pagination ដំណើរការលើ shard ទាំងអស់ស្របគ្នា ហើយបញ្ចូលគ្នាតាម k-way merge
+// - k-way merge ប្រៀបធៀប string តាម collation ដែលត្រូវនឹង collation របស់ column ក្នុង DB
+public class ShardedStudentRepository {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, student_name, student_email, phone_number, birth_date, major, address, " +
+            "created_at, updated_at FROM students";
+
+    // Property ដែលអនុញ្ញាតសម្រាប់តម្រៀប -> ឈ្មោះ column
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "student_name",
+            "email", "student_email",
+            "phoneNumber", "phone_number",
+            "birthDate", "birth_date",
+            "major", "major",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private static final Map<String, Function<Student, Comparable<?>>> SORT_KEYS = Map.of(
+            "id", Student::getId,
+            "name", Student::getName,
+            "email", Student::getEmail,
+            "phoneNumber", Student::getPhoneNumber,
+            "birthDate", Student::getBirthDate,
+            "major", Student::getMajor,
+            "createdAt", Student::getCreatedAt,
+            "updatedAt", Student::getUpdatedAt);
+
+    private static final Set<String> STRING_KEYS = Set.of("name", "email", "phoneNumber", "major");
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards;
+    private final ExecutorService executor;
+    private final Comparator<String> stringOrder;
+
+    public ShardedStudentRepository(List<DataSource> dataSources, int queryThreads,
+                                    Comparator<String> stringOrder) {
+        List<JdbcTemplate> templates = new ArrayList<>(dataSources.size());
+        for (DataSource dataSource : dataSources) {
+            templates.add(new JdbcTemplate(dataSource));
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.shards = List.copyOf(templates);
+        this.stringOrder = stringOrder;
+        this.executor = Executors.newFixedThreadPool(
+                queryThreads > 0 ? queryThreads : shards.size());
+    }
+
+    // លំដាប់ string ដែលត្រូវនឹង collation របស់ DB
+    // "binary" = តាម code point, ផ្សេងពីនេះ = locale tag (ឧ. "root", "en") ជាមួយ strength PRIMARY
+    // (មិនខ្វល់ពីអក្សរធំតូច និងសញ្ញាសំឡេង ដូច utf8mb4_0900_ai_ci)
+    public static Comparator<String> collationOrder(String collation) {
+        if (collation == null || collation.equalsIgnoreCase("binary")) {
+            return Comparator.naturalOrder();
+        }
+        Locale locale = collation.equalsIgnoreCase("root")
+                ? Locale.ROOT : Locale.forLanguageTag(collation);
+        Collator collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.PRIMARY);
+        return collator::compare;
+    }
+
+    // បញ្ឈប់ executor ហើយបិទ connection pool របស់ shard នីមួយៗ
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    // បន្តបិទ shard ផ្សេងទៀត
+                }
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    int shardForId(long id) {
+        return (int) Math.floorMod(id, (long) shards.size());
+    }
+
+    int shardForEmail(String email) {
+        return Math.floorMod(email.toLowerCase(Locale.ROOT).hashCode(), shards.size());
+    }
+
+    private long toGlobalId(long localId, int shard) {
+        return localId * shards.size() + shard;
+    }
+
+    private long toLocalId(long globalId) {
+        return Math.floorDiv(globalId, (long) shards.size());
+    }
+
+    private RowMapper<Student> rowMapper(int shard) {
+        return (rs, rowNum) -> {
+            Student student = new Student();
+            student.setId(toGlobalId(rs.getLong("id"), shard));
+            student.setName(rs.getString("student_name"));
+            student.setEmail(rs.getString("student_email"));
+            student.setPhoneNumber(rs.getString("phone_number"));
+            student.setBirthDate(rs.getObject("birth_date", LocalDate.class));
+            student.setMajor(rs.getString("major"));
+            student.setAddress(rs.getString("address"));
+            student.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            student.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+            return student;
+        };
+    }
+
+    // ស្វែងរកនិស្សិតតាម ID (shard តែមួយ)
+    public Optional<Student> findById(Long id) {
+        int shard = shardForId(id);
+        List<Student> rows = shards.get(shard).query(
+                SELECT_COLUMNS + " WHERE id = ?", rowMapper(shard), toLocalId(id));
+        return rows.stream().findFirst();
+    }
+
+    // ស្វែងរកនិស្សិតតាមអ៊ីមែល
+    // ពិនិត្យ shard តាម hash មុន បន្ទាប់មកទើប scatter (ករណីអ៊ីមែលត្រូវបានកែប្រែក្រោយពេលបង្កើត)
+    public Optional<Student> findByEmail(String email) {
+        int home = shardForEmail(email);
+        List<Student> rows = shards.get(home).query(
+                SELECT_COLUMNS + " WHERE student_email = ?", rowMapper(home), email);
+        if (!rows.isEmpty()) {
+            return Optional.of(rows.get(0));
+        }
+        List<List<Student>> others = scatter(shard -> shard == home ? List.of()
+                : shards.get(shard).query(
+                        SELECT_COLUMNS + " WHERE student_email = ?", rowMapper(shard), email));
+        return others.stream().flatMap(List::stream).findFirst();
+    }
+
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    // បង្កើតនិស្សិតថ្មីលើ shard តាម hash នៃអ៊ីមែល
+    public Student insert(Student student) {
+        int shard = shardForEmail(student.getEmail());
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        shards.get(shard).update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO students (student_name, student_email, phone_number, birth_date, " +
+                    "major, address, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, student.getName());
+            ps.setString(2, student.getEmail());
+            ps.setString(3, student.getPhoneNumber());
+            ps.setDate(4, student.getBirthDate() != null ? Date.valueOf(student.getBirthDate()) : null);
+            ps.setString(5, student.getMajor());
+            ps.setString(6, student.getAddress());
+            ps.setTimestamp(7, Timestamp.valueOf(now));
+            ps.setTimestamp(8, Timestamp.valueOf(now));
+            return ps;
+        }, keyHolder);
+        student.setId(toGlobalId(keyHolder.getKey().longValue(), shard));
+        student.setCreatedAt(now);
+        student.setUpdatedAt(now);
+        return student;
+    }
+
+    // កែប្រែនិស្សិត (នៅលើ shard ដើមរបស់វា)
+    public Student update(Student student) {
+        int shard = shardForId(student.getId());
+        LocalDateTime now = LocalDateTime.now();
+        shards.get(shard).update(
+                "UPDATE students SET student_name = ?, student_email = ?, phone_number = ?, " +
+                "birth_date = ?, major = ?, address = ?, updated_at = ? WHERE id = ?",
+                student.getName(), student.getEmail(), student.getPhoneNumber(),
+                student.getBirthDate() != null ? Date.valueOf(student.getBirthDate()) : null,
+                student.getMajor(), student.getAddress(), Timestamp.valueOf(now),
+                toLocalId(student.getId()));
+        student.setUpdatedAt(now);
+        return student;
+    }
+
+    public boolean deleteById(Long id) {
+        int shard = shardForId(id);
+        return shards.get(shard).update("DELETE FROM students WHERE id = ?", toLocalId(id)) > 0;
+    }
+
+    // លុបនិស្សិតច្រើននាក់: ពិនិត្យថា ID ទាំងអស់មាន (តាម shard) មុនពេលលុបអ្វីមួយ
+    // ត្រឡប់ false ហើយមិនលុបអ្វីទាំងអស់ ប្រសិនបើមាន ID ណាមួយរកមិនឃើញ
+    public boolean deleteAllById(Collection<Long> ids) {
+        Map<Integer, List<Long>> localIdsByShard = new TreeMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            localIdsByShard.computeIfAbsent(shardForId(id), k -> new ArrayList<>()).add(toLocalId(id));
+        }
+        if (localIdsByShard.isEmpty()) {
+            return true;
+        }
+
+        List<Boolean> allPresent = scatterOn(localIdsByShard.keySet(), shard -> {
+            List<Long> localIds = localIdsByShard.get(shard);
+            Long found = shards.get(shard).queryForObject(
+                    "SELECT COUNT(*) FROM students WHERE id IN (" + placeholders(localIds.size()) + ")",
+                    Long.class, localIds.toArray());
+            return found != null && found == localIds.size();
+        });
+        if (allPresent.contains(Boolean.FALSE)) {
+            return false;
+        }
+
+        scatterOn(localIdsByShard.keySet(), shard -> {
+            List<Long> localIds = localIdsByShard.get(shard);
+            return shards.get(shard).update(
+                    "DELETE FROM students WHERE id IN (" + placeholders(localIds.size()) + ")",
+                    localIds.toArray());
+        });
+        return true;
+    }
+
+    // រាប់ចំនួននិស្សិតទាំងអស់ (scatter-gather)
+    public long count() {
+        return countWhere("", List.of());
+    }
+
+    // រាប់ចំនួននិស្សិតតាមជំនាញ (scatter-gather)
+    public long countByMajor(String major) {
+        return countWhere(" WHERE major = ?", List.of(major));
+    }
+
+    public List<Student> findAll() {
+        return gather(scatter(shard -> shards.get(shard).query(SELECT_COLUMNS, rowMapper(shard))));
+    }
+
+    public List<Student> findByMajor(String major) {
+        return gather(scatter(shard -> shards.get(shard).query(
+                SELECT_COLUMNS + " WHERE major = ?", rowMapper(shard), major)));
+    }
+
+    public Page<Student> findByMajor(String major, Pageable pageable) {
+        return findPage(" WHERE major = ?", List.of(major), pageable);
+    }
+
+    public List<Student> findByNameContainingIgnoreCase(String name) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_COLUMNS + buildWhere(name, null, null, args);
+        return gather(scatter(shard -> shards.get(shard).query(sql, rowMapper(shard), args.toArray())));
+    }
+
+    public List<Student> findByBirthDateBetween(LocalDate startDate, LocalDate endDate) {
+        return gather(scatter(shard -> shards.get(shard).query(
+                SELECT_COLUMNS + " WHERE birth_date BETWEEN ? AND ?", rowMapper(shard),
+                Date.valueOf(startDate), Date.valueOf(endDate))));
+    }
+
+    // និស្សិតថ្មីៗ (limit នាក់) តាម created_at
+    public List<Student> findRecent(int limit) {
+        return findSorted("", List.of(), Sort.by("createdAt").descending(), 0, limit);
+    }
+
+    // Keyset chunk តាម ID សកល (id > afterId) តាមលំដាប់ ID (major = null សម្រាប់ទាំងអស់)
+    public List<Student> findChunkAfterId(String major, long afterId, int limit) {
+        String sql = SELECT_COLUMNS + " WHERE id > ?" + (major != null ? " AND major = ?" : "") +
+                " ORDER BY id ASC LIMIT ?";
+        List<List<Student>> perShard = scatter(shard -> {
+            // localId * N + shard > afterId  <=>  localId > floor((afterId - shard) / N)
+            long localAfter = Math.floorDiv(afterId - shard, (long) shards.size());
+            Object[] args = major != null
+                    ? new Object[]{localAfter, major, limit}
+                    : new Object[]{localAfter, limit};
+            return shards.get(shard).query(sql, rowMapper(shard), args);
+        });
+        return merge(perShard, Comparator.comparing(Student::getId), 0, limit);
+    }
+
+    public Page<Student> findAll(Pageable pageable) {
+        return findStudentsWithFilters(null, null, null, pageable);
+    }
+
+    // ស្វែងរកស្មុគស្មាញ ជាមួយ Pagination
+    public Page<Student> findStudentsWithFilters(String name, String major, String email,
+                                                 Pageable pageable) {
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(name, major, email, args);
+        return findPage(where, args, pageable);
+    }
+
+    // shard នីមួយៗផ្តល់ offset + size ជួរដំបូងតាមលំដាប់ ហើយយើងបញ្ចូលគ្នាដោយ k-way merge
+    private Page<Student> findPage(String where, List<Object> args, Pageable pageable) {
+        String sql = SELECT_COLUMNS + where + buildOrderBy(pageable.getSort()) + " LIMIT ?";
+        String countSql = "SELECT COUNT(*) FROM students" + where;
+        List<Object> pageArgs = new ArrayList<>(args);
+        pageArgs.add(pageable.getOffset() + pageable.getPageSize());
+
+        // shard នីមួយៗរាប់ និងយកជួររបស់វាក្នុង task តែមួយ
+        List<ShardPage> perShard = scatter(shard -> {
+            JdbcTemplate template = shards.get(shard);
+            long count = template.queryForObject(countSql, Long.class, args.toArray());
+            List<Student> rows = count == 0 ? List.of()
+                    : template.query(sql, rowMapper(shard), pageArgs.toArray());
+            return new ShardPage(count, rows);
+        });
+
+        long total = 0;
+        List<List<Student>> sorted = new ArrayList<>(perShard.size());
+        for (ShardPage shardPage : perShard) {
+            total += shardPage.count();
+            sorted.add(shardPage.rows());
+        }
+        List<Student> content = merge(sorted, comparator(pageable.getSort()),
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private record ShardPage(long count, List<Student> rows) {}
+
+    private List<Student> findSorted(String where, List<Object> args, Sort sort, long offset, int limit) {
+        String sql = SELECT_COLUMNS + where + buildOrderBy(sort) + " LIMIT ?";
+        List<Object> pageArgs = new ArrayList<>(args);
+        pageArgs.add(offset + limit);
+        List<List<Student>> perShard = scatter(shard -> shards.get(shard).query(
+                sql, rowMapper(shard), pageArgs.toArray()));
+        return merge(perShard, comparator(sort), offset, limit);
+    }
+
+    private long countWhere(String where, List<Object> args) {
+        String sql = "SELECT COUNT(*) FROM students" + where;
+        return scatter(shard -> shards.get(shard).queryForObject(sql, Long.class, args.toArray()))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private String buildWhere(String name, String major, String email, List<Object> args) {
+        List<String> clauses = new ArrayList<>();
+        addLikeClause("student_name", name, clauses, args);
+        addLikeClause("major", major, clauses, args);
+        addLikeClause("student_email", email, clauses, args);
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private void addLikeClause(String column, String value, List<String> clauses, List<Object> args) {
+        if (value != null) {
+            clauses.add("LOWER(" + column + ") LIKE ?");
+            args.add("%" + value.toLowerCase(Locale.ROOT) + "%");
+        }
+    }
+
+    private String buildOrderBy(Sort sort) {
+        List<String> parts = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            parts.add(sortColumn(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        // តម្រៀបតាម id ជាចុងក្រោយ ដើម្បីឲ្យលំដាប់ស្ថិតស្ថេរ
+        parts.add("id ASC");
+        return " ORDER BY " + String.join(", ", parts);
+    }
+
+    private String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("មិនអាចតម្រៀបតាម: " + property);
+        }
+        return column;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Student> comparator(Sort sort) {
+        Comparator<Student> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            sortColumn(order.getProperty());
+            Function<Student, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+            Comparator<Comparable> valueOrder = STRING_KEYS.contains(order.getProperty())
+                    ? (Comparator) stringOrder
+                    : Comparator.naturalOrder();
+            Comparator<Student> next = Comparator.comparing(key, Comparator.nullsFirst(valueOrder));
+            result = result.thenComparing(order.isAscending() ? next : next.reversed());
+        }
+        // ID សកលរក្សាលំដាប់ដូច localId ក្នុង shard នីមួយៗ
+        return result.thenComparing(Student::getId);
+    }
+
+    // k-way merge នៃបញ្ជីដែលបានតម្រៀបរួច
+    private List<Student> merge(List<List<Student>> sorted, Comparator<Student> comparator,
+                                long offset, int size) {
+        PriorityQueue<int[]> heap = new PriorityQueue<>(
+                Math.max(1, sorted.size()),
+                (a, b) -> comparator.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heap.add(new int[]{i, 0});
+            }
+        }
+
+        List<Student> result = new ArrayList<>(size);
+        long skipped = 0;
+        while (!heap.isEmpty() && result.size() < size) {
+            int[] cursor = heap.poll();
+            List<Student> rows = sorted.get(cursor[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(rows.get(cursor[1]));
+            }
+            if (cursor[1] + 1 < rows.size()) {
+                heap.add(new int[]{cursor[0], cursor[1] + 1});
+            }
+        }
+        return result;
+    }
+
+    // ដំណើរការ query លើ shard ទាំងអស់ស្របគ្នា
+    private <T> List<T> scatter(Function<Integer, T> query) {
+        List<Integer> all = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            all.add(i);
+        }
+        return scatterOn(all, query);
+    }
+
+    private <T> List<T> scatterOn(Collection<Integer> shardIndexes, Function<Integer, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardIndexes.size());
+        for (Integer shard : shardIndexes) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static List<Student> gather(List<List<Student>> perShard) {
+        List<Student> result = new ArrayList<>();
+        for (List<Student> rows : perShard) {
+            result.addAll(rows);
+        }
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
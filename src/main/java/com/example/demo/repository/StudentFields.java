@@ -0,0 +1,69 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Sparse fieldsets: បញ្ជី field ដែលអនុញ្ញាតសម្រាប់ប៉ារ៉ាម៉ែត្រ fields=
+public final class StudentFields {
+
+    // Field ដែលអនុញ្ញាត -> getter (លំដាប់នេះក៏ជាលំដាប់លំនាំដើមផងដែរ)
+    private static final Map<String, Function<Student, Object>> ALLOWED = new LinkedHashMap<>();
+
+    static {
+        ALLOWED.put("id", Student::getId);
+        ALLOWED.put("name", Student::getName);
+        ALLOWED.put("email", Student::getEmail);
+        ALLOWED.put("phoneNumber", Student::getPhoneNumber);
+        ALLOWED.put("birthDate", Student::getBirthDate);
+        ALLOWED.put("major", Student::getMajor);
+        ALLOWED.put("address", Student::getAddress);
+        ALLOWED.put("createdAt", Student::getCreatedAt);
+        ALLOWED.put("updatedAt", Student::getUpdatedAt);
+    }
+
+    private StudentFields() {}
+
+    // បំប្លែង "name,email,major" ទៅជាបញ្ជី field (គ្មានស្ទួន)
+    public static List<String> parse(String fields) {
+        List<String> result = new ArrayList<>();
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.containsKey(field)) {
+                throw new InvalidFieldsException("field មិនត្រឹមត្រូវ: " + field);
+            }
+            if (!result.contains(field)) {
+                result.add(field);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new InvalidFieldsException("fields មិនអាចទទេបានទេ");
+        }
+        return List.copyOf(result);
+    }
+
+    // null = field ទាំងអស់ (មិនមានប៉ារ៉ាម៉ែត្រ fields=)
+    public static List<String> parseOptional(String fields) {
+        return fields == null ? null : parse(fields);
+    }
+
+    public static boolean isAllowed(String field) {
+        return ALLOWED.containsKey(field);
+    }
+
+    // យកតែ field ដែលបានស្នើពី Student ដែលបានផ្ទុករួច (ប្រើពេល query មិនអាចជ្រើស column បាន)
+    public static Map<String, Object> project(Student student, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            row.put(field, ALLOWED.get(field).apply(student));
+        }
+        return row;
+    }
+}
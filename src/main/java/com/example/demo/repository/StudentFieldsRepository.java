@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Query ដែលជ្រើសតែ column ដែលបានស្នើ (fields=) ហើយត្រឡប់ជា Map តាមលំដាប់ field
+public interface StudentFieldsRepository {
+
+    Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields);
+
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    List<Map<String, Object>> findFieldsByMajor(String major, List<String> fields);
+
+    List<Map<String, Object>> findFieldsByNameContainingIgnoreCase(String name, List<String> fields);
+
+    Page<Map<String, Object>> findFieldsWithFilters(String name, String major, String email,
+                                                    List<String> fields, Pageable pageable);
+}
@@ -0,0 +1,134 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+// បង្កើត tuple query ដោយ Criteria API ដែល SELECT តែ column ដែលបានស្នើ
+// មិនផ្ទុក entity ទាំងមូល និងមិនចូល persistence context ទេ
+public class StudentFieldsRepositoryImpl implements StudentFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields) {
+        List<Map<String, Object>> rows = select(fields,
+                (cb, root) -> List.of(cb.equal(root.get("id"), id)), Sort.unsorted(), 0, 1);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return select(fields, (cb, root) -> List.of(), Sort.unsorted(), 0, -1);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByMajor(String major, List<String> fields) {
+        return select(fields, (cb, root) -> List.of(cb.equal(root.get("major"), major)),
+                Sort.unsorted(), 0, -1);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNameContainingIgnoreCase(String name, List<String> fields) {
+        return select(fields, (cb, root) -> List.of(containsIgnoreCase(cb, root, "name", name)),
+                Sort.unsorted(), 0, -1);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsWithFilters(String name, String major, String email,
+                                                           List<String> fields, Pageable pageable) {
+        BiFunction<CriteriaBuilder, Root<Student>, List<Predicate>> filters = (cb, root) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null) {
+                predicates.add(containsIgnoreCase(cb, root, "name", name));
+            }
+            if (major != null) {
+                predicates.add(containsIgnoreCase(cb, root, "major", major));
+            }
+            if (email != null) {
+                predicates.add(containsIgnoreCase(cb, root, "email", email));
+            }
+            return predicates;
+        };
+
+        List<Map<String, Object>> content = select(fields, filters, pageable.getSort(),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, count(filters));
+    }
+
+    private List<Map<String, Object>> select(List<String> fields,
+                                             BiFunction<CriteriaBuilder, Root<Student>, List<Predicate>> filters,
+                                             Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Student> root = query.from(Student.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections);
+        query.where(filters.apply(cb, root).toArray(new Predicate[0]));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!StudentFields.isAllowed(order.getProperty())) {
+                throw new IllegalArgumentException("មិនអាចតម្រៀបតាម: " + order.getProperty());
+            }
+            orders.add(order.isAscending()
+                    ? cb.asc(root.get(order.getProperty()))
+                    : cb.desc(root.get(order.getProperty())));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setFirstResult(offset);
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private long count(BiFunction<CriteriaBuilder, Root<Student>, List<Predicate>> filters) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Student> root = query.from(Student.class);
+        query.select(cb.count(root));
+        query.where(filters.apply(cb, root).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Root<Student> root,
+                                                String attribute, String value) {
+        return cb.like(cb.lower(root.<String>get(attribute)), "%" + value.toLowerCase() + "%");
+    }
+}
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentFieldsRepository {
 
     // ស្វែងរកនិស្សិតតាមអ៊ីមែល
     Optional<Student> findByEmail(String email);
@@ -66,4 +66,10 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
                                           @Param("major") String major,
                                           @Param("email") String email,
                                           Pageable pageable);
+
+    // Keyset pagination: យកនិស្សិតបន្ទាប់ពី ID ដែលបានផ្តល់ (សម្រាប់របាយការណ៍)
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Keyset pagination តាមជំនាញ
+    List<Student> findByMajorAndIdGreaterThanOrderByIdAsc(String major, Long id, Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Course;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA entity listener: ធ្វើបច្ចុប្បន្នភាពកាតាឡុក និងសម្អាតលទ្ធផល coalesced (មានទិន្នន័យវគ្គសិក្សា)
+// នៅពេលវគ្គសិក្សាផ្លាស់ប្តូរ
+// រង់ចាំរហូតដល់ commit ដើម្បីកុំឲ្យកាតាឡុកអានទិន្នន័យដែលមិនទាន់ commit
+@Component
+public class CourseCatalogListener {
+
+    @Autowired
+    @Lazy
+    private CourseCatalogService courseCatalogService;
+
+    @Autowired
+    @Lazy
+    private RequestCoalescer requestCoalescer;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCourseChanged(Course course) {
+        Long courseId = course.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(courseId);
+                }
+            });
+        } else {
+            refresh(courseId);
+        }
+    }
+
+    private void refresh(Long courseId) {
+        courseCatalogService.invalidateCourse(courseId);
+        requestCoalescer.invalidate();
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Course;
+import com.example.demo.repository.CourseRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// កាតាឡុកវគ្គសិក្សាក្នុង memory (copy-on-write)
+// អ្នកអានមិនចាំបាច់ lock ទេ ព្រោះ snapshot មិនអាចកែប្រែបាន ហើយត្រូវបានប្តូរដោយ AtomicReference
+@Service
+public class CourseCatalogService implements SmartInitializingSingleton {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final AtomicReference<CatalogSnapshot> snapshot =
+            new AtomicReference<>(CatalogSnapshot.EMPTY);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // false រហូតដល់ reload() លើកដំបូងជោគជ័យ (កាតាឡុកទទេ ≠ មិនទាន់ផ្ទុក)
+    private volatile boolean loaded = false;
+
+    // ទិន្នន័យមិនអាចកែប្រែបាន (immutable) នៃវគ្គសិក្សាមួយ
+    public record CourseEntry(Long id, String courseName, String courseCode,
+                              int credits, BigDecimal price) {
+
+        static CourseEntry of(Course course) {
+            return new CourseEntry(
+                    course.getId(),
+                    course.getCourseName(),
+                    course.getCourseCode(),
+                    course.getCredits() != null ? course.getCredits() : 0,
+                    course.getPrice() != null ? course.getPrice() : BigDecimal.ZERO);
+        }
+    }
+
+    // សរុបឥណទាន និងថ្លៃសិក្សារបស់និស្សិតម្នាក់
+    public record StudentTotals(Long studentId, int totalCredits, BigDecimal totalTuition) {}
+
+    // តម្រៀបតាម courseCode បន្ទាប់មក id ដើម្បីឲ្យលំដាប់ដូចគ្នារាល់ពេល
+    private static final Comparator<CourseEntry> CATALOG_ORDER = Comparator
+            .comparing(CourseEntry::courseCode, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CourseEntry::id);
+
+    // Snapshot ដែលមាន index តាម id និង courseCode និងបញ្ជីដែលបានតម្រៀបរួច
+    static final class CatalogSnapshot {
+
+        static final CatalogSnapshot EMPTY = new CatalogSnapshot(Map.of(), Map.of(), List.of());
+
+        final Map<Long, CourseEntry> byId;
+        final Map<String, CourseEntry> byCode;
+        final List<CourseEntry> sorted;
+
+        private CatalogSnapshot(Map<Long, CourseEntry> byId, Map<String, CourseEntry> byCode,
+                                List<CourseEntry> sorted) {
+            this.byId = byId;
+            this.byCode = byCode;
+            this.sorted = sorted;
+        }
+
+        static CatalogSnapshot of(Collection<CourseEntry> entries) {
+            Map<Long, CourseEntry> byId = new HashMap<>();
+            Map<String, CourseEntry> byCode = new HashMap<>();
+            for (CourseEntry entry : entries) {
+                byId.put(entry.id(), entry);
+                if (entry.courseCode() != null) {
+                    byCode.put(entry.courseCode(), entry);
+                }
+            }
+            List<CourseEntry> sorted = new ArrayList<>(byId.values());
+            sorted.sort(CATALOG_ORDER);
+            return new CatalogSnapshot(Map.copyOf(byId), Map.copyOf(byCode), List.copyOf(sorted));
+        }
+
+        // បង្កើត snapshot ថ្មីដោយជំនួស ឬលុបវគ្គសិក្សាមួយ
+        CatalogSnapshot with(Long id, CourseEntry replacement) {
+            Map<Long, CourseEntry> copy = new HashMap<>(byId);
+            if (replacement == null) {
+                copy.remove(id);
+            } else {
+                copy.put(id, replacement);
+            }
+            return of(copy.values());
+        }
+    }
+
+    // ផ្ទុកកាតាឡុកក្រោយ singleton ទាំងអស់ត្រូវបានបង្កើត មុនពេល web server ទទួលសំណើ
+    // និងមុន ApplicationReadyEvent (ពេល ReportJobService បន្តការងារចាស់)
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ផ្ទុកវគ្គសិក្សាទាំងអស់ពី DB ហើយប្តូរ snapshot
+    // អ្នកសរសេរ (reload/invalidate) ត្រូវបានធ្វើម្តងមួយក្រោម writeLock ហើយអាន DB ក្នុង lock
+    // ដូច្នេះ invalidate មិនអាចបាត់ ឬត្រូវបានអនុវត្តខុសលំដាប់ទេ (អ្នកអាននៅតែមិន lock)
+    public void reload() {
+        writeLock.lock();
+        try {
+            List<CourseEntry> entries = new ArrayList<>();
+            for (Course course : courseRepository.findAll()) {
+                entries.add(CourseEntry.of(course));
+            }
+            snapshot.set(CatalogSnapshot.of(entries));
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Hook សម្រាប់ហៅនៅពេលវគ្គសិក្សាត្រូវបានបង្កើត កែប្រែ ឬលុប (សូមមើល CourseCatalogListener)
+    public void invalidateCourse(Long courseId) {
+        writeLock.lock();
+        try {
+            CourseEntry replacement = courseRepository.findById(courseId)
+                    .map(CourseEntry::of)
+                    .orElse(null);
+            snapshot.set(snapshot.get().with(courseId, replacement));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // យកវគ្គសិក្សាតាម ID
+    public Optional<CourseEntry> getCourseById(Long id) {
+        return Optional.ofNullable(snapshot.get().byId.get(id));
+    }
+
+    // យកវគ្គសិក្សាតាមកូដ
+    public Optional<CourseEntry> getCourseByCode(String courseCode) {
+        return Optional.ofNullable(snapshot.get().byCode.get(courseCode));
+    }
+
+    // យកវគ្គសិក្សាទាំងអស់ (តម្រៀបតាម courseCode)
+    public List<CourseEntry> getAllCourses() {
+        return snapshot.get().sorted;
+    }
+
+    // យកវគ្គសិក្សាច្រើនតាម ID (រំលង ID ដែលរកមិនឃើញ)
+    public List<CourseEntry> getCoursesByIds(Collection<Long> ids) {
+        Map<Long, CourseEntry> byId = snapshot.get().byId;
+        List<CourseEntry> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            CourseEntry entry = byId.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // យកវគ្គសិក្សារបស់និស្សិតច្រើននាក់ (student_id -> វគ្គសិក្សា)
+    // មានតែ query មួយលើ student_courses ផ្សេងទៀតយកពី snapshot
+    @Transactional(readOnly = true)
+    public Map<Long, List<CourseEntry>> getCoursesForStudents(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, CourseEntry> byId = snapshot.get().byId;
+        Map<Long, List<CourseEntry>> result = new LinkedHashMap<>();
+        for (Long studentId : studentIds) {
+            result.put(studentId, new ArrayList<>());
+        }
+        for (Object[] row : courseRepository.findCourseIdsByStudentIds(studentIds)) {
+            List<CourseEntry> courses = result.get(((Number) row[0]).longValue());
+            CourseEntry course = byId.get(((Number) row[1]).longValue());
+            if (courses != null && course != null) {
+                courses.add(course);
+            }
+        }
+        return result;
+    }
+
+    // គណនាសរុបឥណទាន និងថ្លៃសិក្សាសម្រាប់និស្សិតច្រើននាក់
+    @Transactional(readOnly = true)
+    public Map<Long, StudentTotals> getTotalsForStudents(Collection<Long> studentIds) {
+        Map<Long, StudentTotals> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<CourseEntry>> entry : getCoursesForStudents(studentIds).entrySet()) {
+            result.put(entry.getKey(), totals(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    public static StudentTotals totals(Long studentId, List<CourseEntry> courses) {
+        int credits = 0;
+        BigDecimal tuition = BigDecimal.ZERO;
+        for (CourseEntry course : courses) {
+            credits += course.credits();
+            tuition = tuition.add(course.price());
+        }
+        return new StudentTotals(studentId, credits, tuition);
+    }
+}
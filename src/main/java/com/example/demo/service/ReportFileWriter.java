@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReportJob;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// សរសេរជួររបាយការណ៍ទៅឯកសារ .part តាម FileChannel ម្តងមួយ chunk
+// ជួរត្រូវបានសរសេរជា CSV ឬជា <row> របស់ XLSX ហើយ finish() បង្កើតឯកសារចុងក្រោយ
+class ReportFileWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ReportJob.Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private ReportFileWriter(FileChannel channel, ReportJob.Format format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    // បើកឯកសារ ហើយកាត់ចោលអ្វីដែលសរសេរក្រោយ offset ចុងក្រោយដែលបានរក្សាទុក
+    static ReportFileWriter open(Path partFile, ReportJob.Format format, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(partFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(offset);
+        channel.position(offset);
+        return new ReportFileWriter(channel, format);
+    }
+
+    void writeRows(List<String[]> rows) throws IOException {
+        StringBuilder sb = new StringBuilder(rows.size() * 128);
+        for (String[] row : rows) {
+            if (format == ReportJob.Format.CSV) {
+                appendCsvRow(sb, row);
+            } else {
+                appendXlsxRow(sb, row);
+            }
+        }
+        write(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ធានាថាទិន្នន័យនៅលើ disk ហើយត្រឡប់ offset ថ្មី
+    long flush() throws IOException {
+        channel.force(false);
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        int position = 0;
+        while (position < bytes.length) {
+            int length = Math.min(buffer.remaining(), bytes.length - position);
+            buffer.put(bytes, position, length);
+            position += length;
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+        }
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // បង្កើតឯកសារចុងក្រោយពីឯកសារ .part
+    static void finish(Path partFile, Path target, ReportJob.Format format) throws IOException {
+        if (format == ReportJob.Format.CSV) {
+            Files.copy(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        try (OutputStream file = Files.newOutputStream(target);
+             ZipOutputStream zip = new ZipOutputStream(file)) {
+            putEntry(zip, "[Content_Types].xml",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                    "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                    "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                    "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                    "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+                    "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                    "</Types>");
+            putEntry(zip, "_rels/.rels",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                    "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                    "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                    "</Relationships>");
+            putEntry(zip, "xl/workbook.xml",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                    "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                    "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                    "<sheets><sheet name=\"Students\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+            putEntry(zip, "xl/_rels/workbook.xml.rels",
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                    "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                    "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                    "</Relationships>");
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                    "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>")
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.copy(partFile, zip);
+            zip.write("</sheetData></worksheet>".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static void appendCsvRow(StringBuilder sb, String[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            String value = row[i] != null ? row[i] : "";
+            // ការពារ CSV formula injection: Excel មិនគណនាតម្លៃដែលចាប់ផ្តើមដោយ ' ទេ
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(value);
+            }
+        }
+        sb.append("\r\n");
+    }
+
+    private static void appendXlsxRow(StringBuilder sb, String[] row) {
+        sb.append("<row>");
+        for (String value : row) {
+            sb.append("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            appendXmlEscaped(sb, value != null ? value : "");
+            sb.append("</t></is></c>");
+        }
+        sb.append("</row>");
+    }
+
+    private static void appendXmlEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // XML 1.0 មិនអនុញ្ញាត control characters ភាគច្រើនទេ
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
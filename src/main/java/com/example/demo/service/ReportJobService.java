@@ -0,0 +1,302 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReportJob;
+import com.example.demo.entity.Student;
+import com.example.demo.repository.ReportJobRepository;
+import com.example.demo.repository.ShardedStudentRepository;
+import com.example.demo.repository.StudentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// ការងារបង្កើតរបាយការណ៍និស្សិតនៅខាងក្រោយ
+// - អាននិស្សិតតាម keyset chunk (id > lastStudentId) ក្នុង transaction ខ្លីៗ
+// - សរសេរទៅឯកសារបណ្តោះអាសន្នតាម FileChannel
+// - ដំណើរការលើ executor ដែលមានចំនួន thread កំណត់
+// - រក្សាទុក cursor ក្រោយ chunk នីមួយៗ ដូច្នេះអាចបន្តក្រោយពេលគាំង
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String[] HEADER = {
+            "id", "name", "email", "phoneNumber", "birthDate", "major", "address",
+            "courses", "totalCredits", "totalTuition"
+    };
+
+    // ក្នុង sharding mode ការចុះឈ្មោះ (student_courses) មិនមាននៅលើ shard ទេ ហើយ global id
+    // មិនត្រូវនឹង student id ក្នុង DB ចម្បង ដូច្នេះរបាយការណ៍មិនមានជួរឈរវគ្គសិក្សាទេ
+    private static final String[] SHARDED_HEADER = Arrays.copyOf(HEADER, 7);
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseCatalogService courseCatalogService;
+
+    // មានតែនៅពេល app.sharding.enabled=true (សូមមើល ShardingConfig)
+    @Autowired(required = false)
+    private ShardedStudentRepository shardedStudentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.directory:${java.io.tmpdir}/student-reports}")
+    private String directory;
+
+    @Value("${app.reports.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.reports.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private ExecutorService executor;
+    private TransactionTemplate readOnlyTransaction;
+    // jobId -> token របស់ការរត់បច្ចុប្បន្ន (ការរត់នីមួយៗដកតែ token របស់ខ្លួនប៉ុណ្ណោះ)
+    private final ConcurrentHashMap<Long, Object> activeJobs = new ConcurrentHashMap<>();
+    private volatile boolean stopping = false;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // បញ្ឈប់ត្រឹម chunk បច្ចុប្បន្ន ការងារនៅតែ RUNNING ហើយនឹងបន្តពេលចាប់ផ្តើមឡើងវិញ
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // បន្តការងារដែលមិនទាន់បញ្ចប់ពីមុន
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<ReportJob> jobs = reportJobRepository.findByStatusInOrderByIdAsc(
+                List.of(ReportJob.Status.PENDING, ReportJob.Status.RUNNING));
+        for (ReportJob job : jobs) {
+            log.info("បន្តការងាររបាយការណ៍ {}", job.getId());
+            schedule(job.getId());
+        }
+    }
+
+    // ដាក់ការងាររបាយការណ៍ថ្មី (major = null សម្រាប់ជំនាញទាំងអស់)
+    public ReportJob submitReport(String major, ReportJob.Format format) {
+        ReportJob job = reportJobRepository.save(new ReportJob(major, format));
+        schedule(job.getId());
+        return job;
+    }
+
+    // ដាក់ការងារដែលបរាជ័យឡើងវិញ ដោយបន្តពី cursor ចុងក្រោយ
+    public ReportJob retryJob(Long id) {
+        ReportJob job = reportJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("រកមិនឃើញការងារ ID: " + id));
+        if (job.getStatus() != ReportJob.Status.FAILED) {
+            throw new IllegalStateException("អាចដាក់ឡើងវិញបានតែការងារដែលបរាជ័យប៉ុណ្ណោះ");
+        }
+        job.setStatus(ReportJob.Status.PENDING);
+        job.setErrorMessage(null);
+        job = reportJobRepository.save(job);
+        schedule(job.getId());
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(Long id) {
+        return reportJobRepository.findById(id);
+    }
+
+    // យកឯកសាររបាយការណ៍ដែលបានបញ្ចប់
+    public Path getReportFile(Long id) {
+        ReportJob job = reportJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("រកមិនឃើញការងារ ID: " + id));
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            throw new IllegalStateException("របាយការណ៍មិនទាន់រួចរាល់: " + job.getStatus());
+        }
+        return Paths.get(job.getFilePath());
+    }
+
+    private void schedule(Long jobId) {
+        Object token = new Object();
+        if (activeJobs.putIfAbsent(jobId, token) == null) {
+            executor.execute(() -> run(jobId, token));
+        }
+    }
+
+    private void run(Long jobId, Object token) {
+        try {
+            process(jobId);
+        } catch (Exception e) {
+            log.error("ការងាររបាយការណ៍ {} បរាជ័យ", jobId, e);
+            // ដកចេញពី activeJobs មុនពេលរក្សាទុក FAILED ដើម្បីកុំឱ្យ retryJob ដែលឃើញ FAILED ត្រូវបានរំលង
+            activeJobs.remove(jobId, token);
+            reportJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(ReportJob.Status.FAILED);
+                job.setErrorMessage(e.getMessage());
+                reportJobRepository.save(job);
+            });
+        } finally {
+            // remove(key, token) មិនលុប token របស់ការរត់ថ្មីដែល retryJob បានដាក់ទេ
+            activeJobs.remove(jobId, token);
+        }
+    }
+
+    private void process(Long jobId) throws IOException {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == ReportJob.Status.COMPLETED
+                || job.getStatus() == ReportJob.Status.FAILED) {
+            return;
+        }
+
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path partFile = dir.resolve("report-" + jobId + ".part");
+
+        job.setStatus(ReportJob.Status.RUNNING);
+        if (job.getTotalRows() == null) {
+            job.setTotalRows(countStudents(job.getMajor()));
+        }
+        job = reportJobRepository.save(job);
+
+        try (ReportFileWriter writer = ReportFileWriter.open(partFile, job.getFormat(), job.getFileOffset())) {
+            if (job.getFileOffset() == 0) {
+                writer.writeRows(List.<String[]>of(isSharded() ? SHARDED_HEADER : HEADER));
+                job.setFileOffset(writer.flush());
+                job = reportJobRepository.save(job);
+            }
+
+            while (!stopping) {
+                Chunk chunk = readChunk(job.getMajor(), job.getLastStudentId());
+                if (chunk.rows().isEmpty()) {
+                    break;
+                }
+                writer.writeRows(chunk.rows());
+                // រក្សាទុក cursor តែក្រោយពេលទិន្នន័យនៅលើ disk រួច
+                job.setFileOffset(writer.flush());
+                job.setLastStudentId(chunk.lastStudentId());
+                job.setProcessedRows(job.getProcessedRows() + chunk.rows().size());
+                job = reportJobRepository.save(job);
+            }
+        }
+        if (stopping) {
+            return;
+        }
+
+        String extension = job.getFormat() == ReportJob.Format.CSV ? ".csv" : ".xlsx";
+        Path target = dir.resolve("report-" + jobId + extension);
+        ReportFileWriter.finish(partFile, target, job.getFormat());
+
+        job.setFilePath(target.toString());
+        job.setStatus(ReportJob.Status.COMPLETED);
+        reportJobRepository.save(job);
+        Files.deleteIfExists(partFile);
+    }
+
+    private boolean isSharded() {
+        return shardedStudentRepository != null;
+    }
+
+    private long countStudents(String major) {
+        if (isSharded()) {
+            return major == null
+                    ? shardedStudentRepository.count()
+                    : shardedStudentRepository.countByMajor(major);
+        }
+        return major == null
+                ? studentRepository.count()
+                : studentRepository.countStudentsByMajor(major);
+    }
+
+    private record Chunk(long lastStudentId, List<String[]> rows) {}
+
+    // អាន chunk មួយក្នុង transaction ខ្លី (មិនកាន់ connection ពេលសរសេរឯកសារ)
+    // បដិសេធមិនអានប្រសិនបើកាតាឡុកមិនទាន់ផ្ទុក ព្រោះ "មិនមានក្នុង snapshot" មិនមែនមានន័យថា "គ្មានវគ្គសិក្សា" ទេ
+    // ការងារនឹង FAILED ដោយមិនរក្សាទុក cursor ហើយអាច retry បាន
+    private Chunk readChunk(String major, long afterId) {
+        boolean withCourses = !isSharded();
+        if (withCourses && !courseCatalogService.isLoaded()) {
+            throw new IllegalStateException("កាតាឡុកវគ្គសិក្សាមិនទាន់ផ្ទុករួច");
+        }
+        return readOnlyTransaction.execute(status -> {
+            List<Student> students;
+            if (isSharded()) {
+                students = shardedStudentRepository.findChunkAfterId(major, afterId, chunkSize);
+            } else {
+                Pageable limit = PageRequest.of(0, chunkSize);
+                students = major == null
+                        ? studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit)
+                        : studentRepository.findByMajorAndIdGreaterThanOrderByIdAsc(major, afterId, limit);
+            }
+            if (students.isEmpty()) {
+                return new Chunk(afterId, List.of());
+            }
+
+            Map<Long, List<CourseCatalogService.CourseEntry>> coursesByStudent = withCourses
+                    ? courseCatalogService.getCoursesForStudents(students.stream().map(Student::getId).toList())
+                    : Map.of();
+
+            List<String[]> rows = new ArrayList<>(students.size());
+            for (Student student : students) {
+                String[] row = {
+                        String.valueOf(student.getId()),
+                        student.getName(),
+                        student.getEmail(),
+                        student.getPhoneNumber(),
+                        student.getBirthDate() != null ? student.getBirthDate().toString() : null,
+                        student.getMajor(),
+                        student.getAddress()
+                };
+                if (withCourses) {
+                    List<CourseCatalogService.CourseEntry> courses =
+                            coursesByStudent.getOrDefault(student.getId(), List.of());
+                    CourseCatalogService.StudentTotals totals =
+                            CourseCatalogService.totals(student.getId(), courses);
+                    row = Arrays.copyOf(row, HEADER.length);
+                    row[7] = courses.stream().map(CourseCatalogService.CourseEntry::courseCode)
+                            .collect(Collectors.joining(";"));
+                    row[8] = String.valueOf(totals.totalCredits());
+                    row[9] = totals.totalTuition().toPlainString();
+                }
+                rows.add(row);
+            }
+            return new Chunk(students.get(students.size() - 1).getId(), rows);
+        });
+    }
+}
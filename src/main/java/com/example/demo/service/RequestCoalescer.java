@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Single-flight: សំណើអានដូចគ្នាដែលមកក្នុងពេលតែមួយ ចែករំលែក query និងលទ្ធផលតែមួយ
+// លទ្ធផលអាចរក្សាទុកបន្តិច (micro-TTL) ហើយរាល់ការសរសេរសម្អាតទាំងអស់
+// លទ្ធផលត្រូវបានចែករំលែករវាង thread ដូច្នេះ loader ត្រូវត្រឡប់ object ដែលមិនភ្ជាប់ session (detached)
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<Key, Flight> flights = new ConcurrentHashMap<>();
+
+    // កើនឡើងរាល់ពេល invalidate ដើម្បីកុំឲ្យលទ្ធផលចាស់ត្រូវបានចែករំលែកក្រោយការសរសេរ
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @Value("${app.coalescing.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.coalescing.ttl-ms:0}")
+    private long ttlMillis = 0;
+
+    private static final class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final long generation;
+        volatile long completedAt;
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+
+        boolean isUsable(long currentGeneration, long ttlMillis, long now) {
+            if (generation != currentGeneration) {
+                return false;
+            }
+            return !future.isDone() || (completedAt > 0 && now - completedAt < ttlMillis);
+        }
+    }
+
+    // Key តាមឈ្មោះ method និង argument (ប្រៀបធៀបតាម equals ដូច្នេះ null ខុសពី "null")
+    public record Key(String method, List<Object> args) {}
+
+    public static Key key(String method, Object... args) {
+        return new Key(method, Arrays.asList(args.clone()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Key key, Supplier<T> loader) {
+        requests.incrementAndGet();
+        if (!enabled) {
+            executions.incrementAndGet();
+            return loader.get();
+        }
+
+        while (true) {
+            long currentGeneration = generation.get();
+            Flight existing = flights.get(key);
+            if (existing != null && existing.isUsable(currentGeneration, ttlMillis, System.currentTimeMillis())) {
+                coalesced.incrementAndGet();
+                return (T) await(existing);
+            }
+
+            Flight flight = new Flight(currentGeneration);
+            boolean leader = existing == null
+                    ? flights.putIfAbsent(key, flight) == null
+                    : flights.replace(key, existing, flight);
+            if (!leader) {
+                // អ្នកផ្សេងបានចាប់ផ្តើមមុន ព្យាយាមម្តងទៀត
+                continue;
+            }
+
+            executions.incrementAndGet();
+            try {
+                T result = loader.get();
+                flight.completedAt = System.currentTimeMillis();
+                flight.future.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.future.completeExceptionally(e);
+                flights.remove(key, flight);
+                throw e;
+            } finally {
+                if (ttlMillis <= 0) {
+                    flights.remove(key, flight);
+                } else {
+                    // លុបចេញក្រោយ TTL ផុតកំណត់ ដើម្បីកុំឲ្យ map ធំឡើងរហូត
+                    CompletableFuture.delayedExecutor(ttlMillis, TimeUnit.MILLISECONDS)
+                            .execute(() -> flights.remove(key, flight));
+                }
+            }
+        }
+    }
+
+    // សម្អាតទាំងអស់ ហើយម្តងទៀតក្រោយ commit (ប្រសិនបើមាន transaction)
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        flights.clear();
+    }
+
+    // ស្ថិតិ: ចំនួនសំណើ, ចំនួន query ពិតប្រាកដ, និងអត្រា coalescing
+    public Map<String, Object> getStats() {
+        long totalRequests = requests.get();
+        long totalExecutions = executions.get();
+        long totalCoalesced = coalesced.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", totalRequests);
+        stats.put("executions", totalExecutions);
+        stats.put("coalesced", totalCoalesced);
+        stats.put("coalescingRatio", totalRequests == 0 ? 0.0
+                : (double) totalCoalesced / totalRequests);
+        stats.put("inFlight", flights.size());
+        return stats;
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.example.demo.service;
 
+import com.example.demo.entity.Course;
 import com.example.demo.entity.Student;
+import com.example.demo.repository.ShardedStudentRepository;
+import com.example.demo.repository.StudentFields;
 import com.example.demo.repository.StudentRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -21,44 +32,100 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
 
+    // មានតែនៅពេល app.sharding.enabled=true (សូមមើល ShardingConfig)
+    @Autowired(required = false)
+    private ShardedStudentRepository shardedStudentRepository;
+
+    // ចែករំលែក query អានដូចគ្នាដែលកំពុងដំណើរការ (single-flight)
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private boolean isSharded() {
+        return shardedStudentRepository != null;
+    }
+
+    // មានតែ leader ដែលបើក transaction អានតែប៉ុណ្ណោះ (query និង courses អានក្នុង transaction តែមួយ)
+    // អ្នករង់ចាំមិនកាន់ transaction ឬ connection ទេ ហើយមិនពឹងលើ open-in-view
+    private <T> T coalesce(RequestCoalescer.Key key, Supplier<T> loader) {
+        return requestCoalescer.execute(key, () -> isSharded()
+                ? loader.get()
+                : readOnlyTransaction.execute(status -> loader.get()));
+    }
+
     // យកនិស្សិតទាំងអស់
     @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
+        if (isSharded()) {
+            return shardedStudentRepository.findAll();
+        }
         return studentRepository.findAll();
     }
 
     // យកនិស្សិតទាំងអស់ជាមួយ Pagination
-    @Transactional(readOnly = true)
+    // Method ដែល coalesce មិនបើក transaction ផ្ទាល់ខ្លួនទេ (SUPPORTS) មានតែ leader បើកក្នុង coalesce()
+    // ដូច្នេះសំណើដែលរង់ចាំលទ្ធផលរួមមិនកាន់ DB connection
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page getAllStudentsPaginated(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        return studentRepository.findAll(pageable);
+        RequestCoalescer.Key key = RequestCoalescer.key("getAllStudentsPaginated",
+                page, size, sortBy, sortDir.toLowerCase());
+        return coalesce(key, () -> {
+            Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                    Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+            Pageable pageable = PageRequest.of(page, size, sort);
+            if (isSharded()) {
+                return shardedStudentRepository.findAll(pageable).map(StudentService::detached);
+            }
+            return studentRepository.findAll(pageable).map(StudentService::detached);
+        });
     }
 
     // យកនិស្សិតតាម ID
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional getStudentById(Long id) {
-        return studentRepository.findById(id);
+        return coalesce(RequestCoalescer.key("getStudentById", id), () -> {
+            if (isSharded()) {
+                return shardedStudentRepository.findById(id).map(StudentService::detached);
+            }
+            return studentRepository.findById(id).map(StudentService::detached);
+        });
     }
 
     // រក្សាទុកនិស្សិតថ្មី
     public Student saveStudent(Student student) {
+        requestCoalescer.invalidate();
         // ពិនិត្យមើលថាតើអ៊ីមែលមានរួចហើយឬទេ
-        if (studentRepository.existsByEmail(student.getEmail())) {
+        if (isEmailExists(student.getEmail())) {
             throw new RuntimeException("អ៊ីមែលនេះមានរួចហើយ: " + student.getEmail());
         }
+        if (isSharded()) {
+            return shardedStudentRepository.insert(student);
+        }
         return studentRepository.save(student);
     }
 
     // កែប្រែនិស្សិត
     public Student updateStudent(Long id, Student studentDetails) {
-        Student student = studentRepository.findById(id)
+        requestCoalescer.invalidate();
+        Optional<Student> existing = isSharded()
+                ? shardedStudentRepository.findById(id)
+                : studentRepository.findById(id);
+        Student student = existing
                 .orElseThrow(() -> new RuntimeException("រកមិនឃើញនិស្សិត ID: " + id));
 
         // ពិនិត្យអ៊ីមែលថ្មី
         if (!student.getEmail().equals(studentDetails.getEmail()) &&
-                studentRepository.existsByEmail(studentDetails.getEmail())) {
+                isEmailExists(studentDetails.getEmail())) {
             throw new RuntimeException("អ៊ីមែលនេះមានរួចហើយ: " + studentDetails.getEmail());
         }
 
@@ -69,11 +136,21 @@ public class StudentService {
         student.setMajor(studentDetails.getMajor());
         student.setAddress(studentDetails.getAddress());
 
+        if (isSharded()) {
+            return shardedStudentRepository.update(student);
+        }
         return studentRepository.save(student);
     }
 
     // លុបនិស្សិត
     public void deleteStudent(Long id) {
+        requestCoalescer.invalidate();
+        if (isSharded()) {
+            if (!shardedStudentRepository.deleteById(id)) {
+                throw new RuntimeException("រកមិនឃើញនិស្សិត ID: " + id);
+            }
+            return;
+        }
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("រកមិនឃើញនិស្សិត ID: " + id));
         studentRepository.delete(student);
@@ -81,6 +158,14 @@ public class StudentService {
 
     // លុបនិស្សិតច្រើនជាងមួយ
     public void deleteStudents(List ids) {
+        requestCoalescer.invalidate();
+        if (isSharded()) {
+            // ពិនិត្យ ID ទាំងអស់មុន ហើយមិនលុបអ្វីទាំងអស់ប្រសិនបើមាន ID រកមិនឃើញ
+            if (!shardedStudentRepository.deleteAllById(ids)) {
+                throw new RuntimeException("មានបញ្ហាក្នុងការលុបនិស្សិត");
+            }
+            return;
+        }
         List students = studentRepository.findAllById(ids);
         if (students.size() != ids.size()) {
             throw new RuntimeException("មានបញ្ហាក្នុងការលុបនិស្សិត");
@@ -91,25 +176,39 @@ public class StudentService {
     // ស្វែងរកនិស្សិតតាមឈ្មោះ
     @Transactional(readOnly = true)
     public List searchStudentsByName(String name) {
+        if (isSharded()) {
+            return shardedStudentRepository.findByNameContainingIgnoreCase(name);
+        }
         return studentRepository.findByNameContainingIgnoreCase(name);
     }
 
     // ស្វែងរកនិស្សិតតាមជំនាញ
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List getStudentsByMajor(String major) {
-        return studentRepository.findByMajor(major);
+        return coalesce(RequestCoalescer.key("getStudentsByMajor", major), () -> {
+            if (isSharded()) {
+                return detached(shardedStudentRepository.findByMajor(major));
+            }
+            return detached(studentRepository.findByMajor(major));
+        });
     }
 
     // ស្វែងរកនិស្សិតតាមជំនាញជាមួយ Pagination
     @Transactional(readOnly = true)
     public Page getStudentsByMajorPaginated(String major, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+        if (isSharded()) {
+            return shardedStudentRepository.findByMajor(major, pageable);
+        }
         return studentRepository.findByMajor(major, pageable);
     }
 
     // ស្វែងរកនិស្សិតតាមអ៊ីមែល
     @Transactional(readOnly = true)
     public Optional getStudentByEmail(String email) {
+        if (isSharded()) {
+            return shardedStudentRepository.findByEmail(email);
+        }
         return studentRepository.findByEmail(email);
     }
 
@@ -118,41 +217,171 @@ public class StudentService {
     public List getStudentsByBirthYear(int year) {
         LocalDate startDate = LocalDate.of(year, 1, 1);
         LocalDate endDate = LocalDate.of(year, 12, 31);
+        if (isSharded()) {
+            return shardedStudentRepository.findByBirthDateBetween(startDate, endDate);
+        }
         return studentRepository.findByBirthDateBetween(startDate, endDate);
     }
 
     // ស្វែងរកស្មុគស្មាញ
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page searchStudents(String name, String major, String email,
                                int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        RequestCoalescer.Key key = RequestCoalescer.key("searchStudents",
+                name, major, email, page, size, sortBy, sortDir.toLowerCase());
+        return coalesce(key, () -> {
+            Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                    Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+            Pageable pageable = PageRequest.of(page, size, sort);
 
-        return studentRepository.findStudentsWithFilters(name, major, email, pageable);
+            if (isSharded()) {
+                return shardedStudentRepository.findStudentsWithFilters(name, major, email, pageable)
+                        .map(StudentService::detached);
+            }
+            return studentRepository.findStudentsWithFilters(name, major, email, pageable)
+                    .map(StudentService::detached);
+        });
     }
 
     // រាប់ចំនួននិស្សិតទាំងអស់
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public long getTotalStudents() {
-        return studentRepository.count();
+        return coalesce(RequestCoalescer.key("getTotalStudents"), () -> {
+            if (isSharded()) {
+                return shardedStudentRepository.count();
+            }
+            return studentRepository.count();
+        });
     }
 
     // រាប់ចំនួននិស្សិតតាមជំនាញ
     @Transactional(readOnly = true)
     public long getStudentCountByMajor(String major) {
+        if (isSharded()) {
+            return shardedStudentRepository.countByMajor(major);
+        }
         return studentRepository.countStudentsByMajor(major);
     }
 
     // យកនិស្សិតថ្មីៗ
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List getRecentStudents() {
-        return studentRepository.findTop5ByOrderByCreatedAtDesc();
+        return coalesce(RequestCoalescer.key("getRecentStudents"), () -> {
+            if (isSharded()) {
+                return detached(shardedStudentRepository.findRecent(5));
+            }
+            return detached(studentRepository.findTop5ByOrderByCreatedAtDesc());
+        });
+    }
+
+    // ស្ថិតិ coalescing
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getCoalescingStats() {
+        return requestCoalescer.getStats();
     }
 
     // ពិនិត្យមើលថាតើអ៊ីមែលមានរួចហើយឬទេ
     @Transactional(readOnly = true)
     public boolean isEmailExists(String email) {
+        if (isSharded()) {
+            return shardedStudentRepository.existsByEmail(email);
+        }
         return studentRepository.existsByEmail(email);
     }
+
+    // ---- Sparse fieldsets (fields=) : SELECT តែ column ដែលបានស្នើ ----
+
+    // យកនិស្សិតទាំងអស់ (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllStudentFields(List<String> fields) {
+        if (isSharded()) {
+            return project(shardedStudentRepository.findAll(), fields);
+        }
+        return studentRepository.findAllFields(fields);
+    }
+
+    // យកនិស្សិតជាមួយ Pagination (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getStudentFieldsPaginated(List<String> fields, int page, int size,
+                                                              String sortBy, String sortDir) {
+        return searchStudentFields(null, null, null, fields, page, size, sortBy, sortDir);
+    }
+
+    // យកនិស្សិតតាម ID (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getStudentFieldsById(Long id, List<String> fields) {
+        if (isSharded()) {
+            return shardedStudentRepository.findById(id).map(s -> StudentFields.project(s, fields));
+        }
+        return studentRepository.findFieldsById(id, fields);
+    }
+
+    // ស្វែងរកនិស្សិតតាមឈ្មោះ (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchStudentFieldsByName(String name, List<String> fields) {
+        if (isSharded()) {
+            return project(shardedStudentRepository.findByNameContainingIgnoreCase(name), fields);
+        }
+        return studentRepository.findFieldsByNameContainingIgnoreCase(name, fields);
+    }
+
+    // ស្វែងរកនិស្សិតតាមជំនាញ (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsByMajor(String major, List<String> fields) {
+        if (isSharded()) {
+            return project(shardedStudentRepository.findByMajor(major), fields);
+        }
+        return studentRepository.findFieldsByMajor(major, fields);
+    }
+
+    // ស្វែងរកស្មុគស្មាញ (តែ field ដែលបានស្នើ)
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> searchStudentFields(String name, String major, String email,
+                                                        List<String> fields, int page, int size,
+                                                        String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        if (isSharded()) {
+            return shardedStudentRepository.findStudentsWithFilters(name, major, email, pageable)
+                    .map(s -> StudentFields.project(s, fields));
+        }
+        return studentRepository.findFieldsWithFilters(name, major, email, fields, pageable);
+    }
+
+    private static List<Map<String, Object>> project(List<Student> students, List<String> fields) {
+        return students.stream().map(s -> StudentFields.project(s, fields)).toList();
+    }
+
+    // ចម្លងនិស្សិតជា object ធម្មតា (detached) មុនពេលចែករំលែកលទ្ធផល coalesced រវាង thread
+    // entity ដែលនៅភ្ជាប់ session របស់ thread មួយមិនអាច load courses (LAZY) ពី thread ផ្សេងបានទេ
+    // ដូច្នេះ courses ត្រូវបាន load នៅទីនេះ (ក្នុង thread ដែល query) ហើយចម្លងដោយគ្មាន students
+    private static List<Student> detached(List<Student> students) {
+        return students.stream().map(StudentService::detached).toList();
+    }
+
+    private static Student detached(Student student) {
+        Student copy = new Student();
+        copy.setId(student.getId());
+        copy.setName(student.getName());
+        copy.setEmail(student.getEmail());
+        copy.setPhoneNumber(student.getPhoneNumber());
+        copy.setBirthDate(student.getBirthDate());
+        copy.setMajor(student.getMajor());
+        copy.setAddress(student.getAddress());
+        copy.setCreatedAt(student.getCreatedAt());
+        copy.setUpdatedAt(student.getUpdatedAt());
+        Set<Course> courses = new HashSet<>();
+        for (Course course : student.getCourses()) {
+            Course courseCopy = new Course(course.getCourseName(), course.getCourseCode(),
+                    course.getCredits(), course.getPrice(), course.getDescription());
+            courseCopy.setId(course.getId());
+            courseCopy.setCreatedAt(course.getCreatedAt());
+            courseCopy.setUpdatedAt(course.getUpdatedAt());
+            courses.add(courseCopy);
+        }
+        copy.setCourses(courses);
+        return copy;
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.CborConfig;
+import com.example.demo.entity.Student;
+import com.example.demo.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StudentController.class)
+@Import(CborConfig.class)
+class StudentControllerCborTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private StudentService studentService;
+
+    @Test
+    void returnsCborWhenRequested() throws Exception {
+        stubPage();
+
+        MvcResult result = mockMvc.perform(get("/api/students/paginated")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, body.get("totalItems").asInt());
+        assertEquals("dara@example.com", body.get("students").get(0).get("email").asText());
+        assertEquals("2001-02-03", body.get("students").get(0).get("birthDate").asText());
+    }
+
+    @Test
+    void defaultsToJson() throws Exception {
+        stubPage();
+
+        mockMvc.perform(get("/api/students/paginated"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.students[0].email").value("dara@example.com"));
+    }
+
+    private void stubPage() {
+        Student student = new Student("Dara", "dara@example.com", null,
+                LocalDate.of(2001, 2, 3), "Physics", null);
+        student.setId(1L);
+        when(studentService.getAllStudentsPaginated(anyInt(), anyInt(), anyString(), anyString()))
+                .thenReturn(new PageImpl<>(List.of(student), PageRequest.of(0, 10), 1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.CborConfig;
+import com.example.demo.entity.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// ប្រៀបធៀបទំហំ payload និងពេលវេលា serialize រវាង JSON និង CBOR
+// ប្រើ ObjectMapper ដែល Boot កំណត់ (ដូច /paginated ពិតប្រាកដ)
+@JsonTest
+@Import(CborConfig.class)
+class StudentPayloadBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPayloadBenchmarkTests.class);
+
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void cborPageIsSmallerThanJson(int pageSize) throws Exception {
+        ObjectMapper cbor = cborConverter.getObjectMapper();
+        Map<String, Object> page = pageEnvelope(pageSize);
+
+        byte[] jsonPayload = json.writeValueAsBytes(page);
+        byte[] cborPayload = cbor.writeValueAsBytes(page);
+        int jsonBytes = jsonPayload.length;
+        int cborBytes = cborPayload.length;
+        long jsonNanos = averageNanos(json, page);
+        long cborNanos = averageNanos(cbor, page);
+
+        log.info("page={} json={} bytes/{} us cbor={} bytes/{} us ({}% size)",
+                pageSize, jsonBytes, jsonNanos / 1000, cborBytes, cborNanos / 1000,
+                String.format("%.1f", 100.0 * cborBytes / jsonBytes));
+        // STRINGREF សរសេរឈ្មោះ field ម្តង ដូច្នេះ CBOR ត្រូវតែតូចជាង JSON យ៉ាងហោចណាស់ 40%
+        assertTrue(cborBytes * 10 < jsonBytes * 6);
+        assertEquals(json.readTree(jsonPayload), cbor.readTree(cborPayload));
+    }
+
+    private long averageNanos(ObjectMapper mapper, Object value) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            out.reset();
+            mapper.writeValue(out, value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            out.reset();
+            mapper.writeValue(out, value);
+        }
+        return (System.nanoTime() - start) / MEASURED_ROUNDS;
+    }
+
+    // Envelope ដូចគ្នានឹង /paginated
+    private Map<String, Object> pageEnvelope(int size) {
+        List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student student = new Student("Student " + i, "student" + i + "@example.com",
+                    "012345" + (i % 1000), LocalDate.of(2000, 1, 1).plusDays(i),
+                    "Computer Science", "Phnom Penh");
+            student.setId((long) i + 1);
+            student.setCreatedAt(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i));
+            student.setUpdatedAt(student.getCreatedAt());
+            students.add(student);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("students", students);
+        response.put("currentPage", 0);
+        response.put("totalItems", (long) size);
+        response.put("totalPages", 1);
+        response.put("pageSize", size);
+        response.put("hasNext", false);
+        response.put("hasPrevious", false);
+        return response;
+    }
+}
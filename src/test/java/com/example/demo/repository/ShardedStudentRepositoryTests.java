@@ -0,0 +1,181 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStudentRepositoryTests {
+
+    private static final int SHARDS = 3;
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private ShardedStudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SHARDS; i++) {
+            databases.add(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("sharding/students-schema.sql")
+                    .build());
+        }
+        repository = new ShardedStudentRepository(new ArrayList<DataSource>(databases), 0,
+                ShardedStudentRepository.collationOrder("en"));
+
+        String[] majors = {"Computer Science", "Mathematics", "Physics"};
+        for (int i = 0; i < 30; i++) {
+            repository.insert(new Student(
+                    String.format("Student %02d", i),
+                    "student" + i + "@example.com",
+                    null,
+                    LocalDate.of(2000, 1, 1).plusDays(i),
+                    majors[i % majors.length],
+                    null));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    void spreadsStudentsAcrossShards() {
+        assertEquals(30, repository.count());
+        for (EmbeddedDatabase database : databases) {
+            Integer rows = new JdbcTemplate(database)
+                    .queryForObject("SELECT COUNT(*) FROM students", Integer.class);
+            assertTrue(rows > 0);
+        }
+    }
+
+    @Test
+    void routesLookupsByIdAndEmail() {
+        Student byEmail = repository.findByEmail("student7@example.com").orElseThrow();
+        assertEquals("Student 07", byEmail.getName());
+
+        Student byId = repository.findById(byEmail.getId()).orElseThrow();
+        assertEquals(byEmail.getEmail(), byId.getEmail());
+        assertTrue(repository.findById(byEmail.getId() + SHARDS * 1000L).isEmpty());
+    }
+
+    @Test
+    void mergesPagesInGlobalSortOrder() {
+        List<Student> expected = new ArrayList<>(repository.findAll());
+        expected.sort(Comparator.comparing(Student::getName).reversed());
+
+        Sort sort = Sort.by("name").descending();
+        List<Student> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            Page<Student> result = repository.findAll(PageRequest.of(page, 8, sort));
+            assertEquals(30, result.getTotalElements());
+            assertEquals(4, result.getTotalPages());
+            paged.addAll(result.getContent());
+        }
+
+        assertEquals(expected.stream().map(Student::getName).toList(),
+                paged.stream().map(Student::getName).toList());
+    }
+
+    @Test
+    void filtersAcrossShards() {
+        Page<Student> result = repository.findStudentsWithFilters(
+                null, "math", null, PageRequest.of(0, 5, Sort.by("birthDate")));
+
+        assertEquals(10, result.getTotalElements());
+        assertEquals(5, result.getContent().size());
+        assertEquals("Student 01", result.getContent().get(0).getName());
+        assertTrue(result.getContent().stream().allMatch(s -> s.getMajor().equals("Mathematics")));
+    }
+
+    @Test
+    void updatesAndDeletesOnOwningShard() {
+        Student student = repository.findByEmail("student3@example.com").orElseThrow();
+        student.setEmail("renamed3@example.com");
+        repository.update(student);
+
+        assertTrue(repository.findByEmail("renamed3@example.com").isPresent());
+        assertTrue(repository.deleteById(student.getId()));
+        assertEquals(29, repository.count());
+    }
+
+    @Test
+    void mergesStringsUsingDatabaseCollation() {
+        // schema ប្រើ collation មិនខ្វល់ពីអក្សរធំតូច និងសញ្ញាសំឡេង ដូច MySQL
+        for (String name : List.of("bea", "Carl", "álvaro", "Bob", "alice", "Zed", "dara", "Émile")) {
+            repository.insert(new Student(name, name.toLowerCase() + "@mixed.example.com",
+                    null, null, "Linguistics", null));
+        }
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            repository.findStudentsWithFilters(null, "linguistics", null,
+                            PageRequest.of(page, 2, Sort.by("name")))
+                    .getContent().forEach(s -> paged.add(s.getName()));
+        }
+
+        assertEquals(List.of("alice", "álvaro", "bea", "Bob", "Carl", "dara", "Émile", "Zed"), paged);
+    }
+
+    @Test
+    void batchDeleteIsAllOrNothing() {
+        List<Long> ids = repository.findAll().stream().limit(4).map(Student::getId)
+                .collect(Collectors.toList());
+        List<Long> withMissing = new ArrayList<>(ids);
+        withMissing.add(ids.get(0) + SHARDS * 1000L);
+
+        assertFalse(repository.deleteAllById(withMissing));
+        assertEquals(30, repository.count());
+
+        assertTrue(repository.deleteAllById(ids));
+        assertEquals(26, repository.count());
+    }
+
+    @Test
+    void readsKeysetChunksInGlobalIdOrder() {
+        List<Long> expected = repository.findAll().stream().map(Student::getId).sorted().toList();
+
+        List<Long> chunked = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<Student> chunk = repository.findChunkAfterId(null, afterId, 7);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(s -> chunked.add(s.getId()));
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        assertEquals(expected, chunked);
+        assertEquals(10, repository.findChunkAfterId("Physics", 0, 100).size());
+    }
+
+    @Test
+    void countsAndRecentStudentsAcrossShards() {
+        assertEquals(10, repository.countByMajor("Mathematics"));
+        assertEquals(5, repository.findRecent(5).size());
+        assertEquals(10, repository.findByMajor("Physics", PageRequest.of(0, 20, Sort.by("name")))
+                .getTotalElements());
+        assertEquals(1, repository.findByBirthDateBetween(
+                LocalDate.of(2000, 1, 3), LocalDate.of(2000, 1, 3)).size());
+    }
+}
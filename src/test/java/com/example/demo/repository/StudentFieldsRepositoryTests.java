@@ -0,0 +1,89 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ពិនិត្យ tuple query របស់ StudentFieldsRepositoryImpl លើ H2
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class StudentFieldsRepositoryTests {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Student dara;
+
+    @BeforeEach
+    void setUp() {
+        dara = studentRepository.save(new Student("Dara", "dara@example.com", "012111222",
+                LocalDate.of(2001, 2, 3), "Physics", "Phnom Penh"));
+        studentRepository.save(new Student("Sokha", "sokha@example.com", null,
+                LocalDate.of(2000, 5, 6), "Mathematics", null));
+        studentRepository.save(new Student("Bopha", "bopha@example.com", null,
+                LocalDate.of(2002, 7, 8), "Physics", null));
+        studentRepository.save(new Student("Vanna", "vanna@mail.org", null,
+                LocalDate.of(1999, 9, 10), "Computer Science", null));
+    }
+
+    @Test
+    void selectsOnlyRequestedColumnsInOrder() {
+        Map<String, Object> row = studentRepository
+                .findFieldsById(dara.getId(), List.of("email", "name", "birthDate"))
+                .orElseThrow();
+
+        assertEquals(List.of("email", "name", "birthDate"), List.copyOf(row.keySet()));
+        assertEquals("dara@example.com", row.get("email"));
+        assertEquals(LocalDate.of(2001, 2, 3), row.get("birthDate"));
+        assertTrue(studentRepository.findFieldsById(-1L, List.of("email")).isEmpty());
+    }
+
+    @Test
+    void filtersByMajorAndName() {
+        List<Map<String, Object>> physics = studentRepository.findFieldsByMajor("Physics", List.of("name"));
+        assertEquals(2, physics.size());
+        assertTrue(physics.stream().allMatch(row -> row.keySet().equals(Set.of("name"))));
+
+        List<Map<String, Object>> byName =
+                studentRepository.findFieldsByNameContainingIgnoreCase("OPH", List.of("email"));
+        assertEquals(List.of(Map.of("email", "bopha@example.com")), byName);
+
+        assertEquals(4, studentRepository.findAllFields(List.of("id")).size());
+    }
+
+    @Test
+    void sortsAndPagesWithMatchingCount() {
+        Page<Map<String, Object>> first = studentRepository.findFieldsWithFilters(
+                null, null, "example.com", List.of("name", "major"),
+                PageRequest.of(0, 2, Sort.by("name").descending()));
+
+        assertEquals(3, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertEquals(List.of("Sokha", "Dara"), first.getContent().stream().map(r -> r.get("name")).toList());
+
+        Page<Map<String, Object>> second = studentRepository.findFieldsWithFilters(
+                null, "phys", "example.com", List.of("name"),
+                PageRequest.of(1, 1, Sort.by("birthDate")));
+
+        assertEquals(2, second.getTotalElements());
+        assertEquals(List.of(Map.of("name", "Bopha")), second.getContent());
+    }
+
+    @Test
+    void rejectsSortOnUnknownProperty() {
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> studentRepository.findFieldsWithFilters(
+                null, null, null, List.of("name"), PageRequest.of(0, 5, Sort.by("courses"))));
+    }
+}
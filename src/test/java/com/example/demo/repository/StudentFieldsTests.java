@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentFieldsTests {
+
+    @Test
+    void parsesAllowedFieldsInRequestOrder() {
+        assertEquals(List.of("email", "name", "major"),
+                StudentFields.parse(" email,name,,major,email "));
+    }
+
+    @Test
+    void rejectsUnknownOrEmptyFields() {
+        assertThrows(InvalidFieldsException.class, () -> StudentFields.parse("name,courses"));
+        assertThrows(InvalidFieldsException.class, () -> StudentFields.parse(" , "));
+    }
+
+    @Test
+    void projectsOnlyRequestedFields() {
+        Student student = new Student("Dara", "dara@example.com", null, null, "Physics", null);
+
+        Map<String, Object> row = StudentFields.project(student, List.of("email"));
+
+        assertEquals(Map.of("email", "dara@example.com"), row);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Course;
+import com.example.demo.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseCatalogServiceTests {
+
+    private CourseRepository courseRepository;
+    private CourseCatalogService catalog;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = mock(CourseRepository.class);
+        catalog = new CourseCatalogService();
+        ReflectionTestUtils.setField(catalog, "courseRepository", courseRepository);
+
+        when(courseRepository.findAll()).thenReturn(List.of(
+                course(1L, "CS101", 3, "100.00"),
+                course(2L, "MA201", 4, "150.50")));
+        catalog.reload();
+    }
+
+    @Test
+    void indexesCoursesByIdAndCode() {
+        assertEquals("CS101", catalog.getCourseById(1L).orElseThrow().courseCode());
+        assertEquals(2L, catalog.getCourseByCode("MA201").orElseThrow().id());
+        assertEquals(2, catalog.getAllCourses().size());
+        assertEquals(1, catalog.getCoursesByIds(List.of(2L, 99L)).size());
+    }
+
+    @Test
+    void listsCoursesInCodeOrderAndTracksLoadedState() {
+        CourseCatalogService fresh = new CourseCatalogService();
+        ReflectionTestUtils.setField(fresh, "courseRepository", courseRepository);
+        when(courseRepository.findAll()).thenReturn(List.of(
+                course(3L, "PH110", 2, "80.00"),
+                course(2L, "MA201", 4, "150.50"),
+                course(1L, "CS101", 3, "100.00")));
+        assertFalse(fresh.isLoaded());
+
+        fresh.afterSingletonsInstantiated();
+
+        assertTrue(fresh.isLoaded());
+        assertEquals(List.of("CS101", "MA201", "PH110"),
+                fresh.getAllCourses().stream().map(CourseCatalogService.CourseEntry::courseCode).toList());
+    }
+
+    @Test
+    void invalidateReplacesAndReindexesCourse() {
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course(1L, "CS102", 5, "120.00")));
+
+        catalog.invalidateCourse(1L);
+
+        assertTrue(catalog.getCourseByCode("CS101").isEmpty());
+        assertEquals(5, catalog.getCourseByCode("CS102").orElseThrow().credits());
+        assertEquals("MA201", catalog.getCourseById(2L).orElseThrow().courseCode());
+    }
+
+    @Test
+    void invalidateRemovesDeletedCourse() {
+        when(courseRepository.findById(2L)).thenReturn(Optional.empty());
+
+        catalog.invalidateCourse(2L);
+
+        assertTrue(catalog.getCourseById(2L).isEmpty());
+        assertTrue(catalog.getCourseByCode("MA201").isEmpty());
+    }
+
+    @Test
+    void computesTotalsFromSnapshot() {
+        when(courseRepository.findCourseIdsByStudentIds(anyCollection())).thenReturn(List.of(
+                new Object[]{10L, 1L},
+                new Object[]{10L, 2L},
+                new Object[]{11L, 2L},
+                new Object[]{11L, 99L}));
+
+        Map<Long, CourseCatalogService.StudentTotals> totals =
+                catalog.getTotalsForStudents(List.of(10L, 11L, 12L));
+
+        assertEquals(7, totals.get(10L).totalCredits());
+        assertEquals(new BigDecimal("250.50"), totals.get(10L).totalTuition());
+        assertEquals(4, totals.get(11L).totalCredits());
+        assertEquals(0, totals.get(12L).totalCredits());
+        assertEquals(BigDecimal.ZERO, totals.get(12L).totalTuition());
+    }
+
+    private static Course course(Long id, String code, int credits, String price) {
+        Course course = new Course("Course " + code, code, credits, new BigDecimal(price), null);
+        course.setId(id);
+        return course;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReportJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportFileWriterTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void escapesCsvValues() throws Exception {
+        Path part = dir.resolve("report.part");
+        try (ReportFileWriter writer = ReportFileWriter.open(part, ReportJob.Format.CSV, 0)) {
+            writer.writeRows(List.<String[]>of(new String[]{"1", "Sok, Dara", "say \"hi\"", null}));
+            writer.flush();
+        }
+
+        assertEquals("1,\"Sok, Dara\",\"say \"\"hi\"\"\",\r\n", Files.readString(part));
+    }
+
+    @Test
+    void neutralizesCsvFormulas() throws Exception {
+        Path part = dir.resolve("report.part");
+        try (ReportFileWriter writer = ReportFileWriter.open(part, ReportJob.Format.CSV, 0)) {
+            writer.writeRows(List.<String[]>of(
+                    new String[]{"=HYPERLINK(\"x\")", "+855", "-1", "@SUM(A1)", "a=b"}));
+            writer.flush();
+        }
+
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\",'+855,'-1,'@SUM(A1),a=b\r\n", Files.readString(part));
+    }
+
+    @Test
+    void resumesFromLastFlushedOffset() throws Exception {
+        Path part = dir.resolve("report.part");
+        long offset;
+        try (ReportFileWriter writer = ReportFileWriter.open(part, ReportJob.Format.CSV, 0)) {
+            writer.writeRows(List.<String[]>of(new String[]{"id"}, new String[]{"1"}));
+            offset = writer.flush();
+            // chunk ដែលមិនបានរក្សាទុក cursor (ដូចជាគាំងមុនពេល save)
+            writer.writeRows(List.<String[]>of(new String[]{"2"}));
+        }
+
+        try (ReportFileWriter writer = ReportFileWriter.open(part, ReportJob.Format.CSV, offset)) {
+            writer.writeRows(List.<String[]>of(new String[]{"2"}, new String[]{"3"}));
+            writer.flush();
+        }
+
+        assertEquals("id\r\n1\r\n2\r\n3\r\n", Files.readString(part));
+    }
+
+    @Test
+    void wrapsRowsIntoXlsxWorkbook() throws Exception {
+        Path part = dir.resolve("report.part");
+        try (ReportFileWriter writer = ReportFileWriter.open(part, ReportJob.Format.XLSX, 0)) {
+            writer.writeRows(List.<String[]>of(new String[]{"name"}, new String[]{"A & B"}));
+            writer.flush();
+        }
+        Path target = dir.resolve("report.xlsx");
+        ReportFileWriter.finish(part, target, ReportJob.Format.XLSX);
+
+        String sheet = null;
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(target))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        assertNotNull(sheet);
+        assertTrue(sheet.contains("<row><c t=\"inlineStr\"><is><t xml:space=\"preserve\">A &amp; B</t></is></c></row>"));
+        assertTrue(sheet.endsWith("</sheetData></worksheet>"));
+    }
+}
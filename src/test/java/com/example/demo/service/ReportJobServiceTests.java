@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.ReportJob;
+import com.example.demo.entity.Student;
+import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.ReportJobRepository;
+import com.example.demo.repository.ShardedStudentRepository;
+import com.example.demo.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ពិនិត្យ ReportJobService លើ H2 (ទិន្នន័យត្រូវ commit ព្រោះការងាររត់លើ thread ផ្សេង)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseCatalogService.class, RequestCoalescer.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportJobServiceTests {
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // ត្រូវការសម្រាប់ CourseCatalogListener ហើយត្រូវបានធ្វើបច្ចុប្បន្នភាពក្រោយ commit វគ្គសិក្សា
+    @Autowired
+    private CourseCatalogService catalog;
+
+    @TempDir
+    Path dir;
+
+    private final List<EmbeddedDatabase> shards = new ArrayList<>();
+    private ShardedStudentRepository shardedStudentRepository;
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        Course cs = courseRepository.save(new Course("Programming", "CS101", 3, new BigDecimal("100.00"), null));
+        Course ma = courseRepository.save(new Course("Calculus", "MA201", 4, new BigDecimal("150.50"), null));
+        for (int i = 0; i < 5; i++) {
+            Student student = new Student("Student " + i, "student" + i + "@example.com", null,
+                    LocalDate.of(2000, 1, 1 + i), i % 2 == 0 ? "Physics" : "Mathematics", null);
+            student.getCourses().add(i % 2 == 0 ? cs : ma);
+            studentRepository.save(student);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+        if (shardedStudentRepository != null) {
+            shardedStudentRepository.shutdown();
+        }
+        shards.forEach(EmbeddedDatabase::shutdown);
+        reportJobRepository.deleteAll();
+        studentRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void resumesAfterCrashFromSavedCursor() throws Exception {
+        service = newService(null);
+
+        // ការរត់ធម្មតា (chunk 2 ជួរ លើ 5 និស្សិត = 3 chunk) ជាឯកសារគោល
+        ReportJob clean = reportJobRepository.save(new ReportJob(null, ReportJob.Format.CSV));
+        process(clean.getId());
+        String expected = Files.readString(service.getReportFile(clean.getId()));
+        List<String> lines = expected.lines().toList();
+        assertEquals(6, lines.size());
+        assertEquals("id,name,email,phoneNumber,birthDate,major,address,courses,totalCredits,totalTuition",
+                lines.get(0));
+        assertTrue(lines.get(2).endsWith(",MA201,4,150.50"), lines.get(2));
+        long previousId = 0;
+        for (String line : lines.subList(1, lines.size())) {
+            long id = Long.parseLong(line.substring(0, line.indexOf(',')));
+            assertTrue(id > previousId);
+            previousId = id;
+        }
+
+        // គាំងក្រោយ chunk ទីមួយបាន save ប៉ុន្តែ chunk ទីពីរបានសរសេរមួយផ្នែកទៅ .part រួចហើយ
+        ReportJob crashed = reportJobRepository.save(new ReportJob(null, ReportJob.Format.CSV));
+        String saved = String.join("\r\n", lines.subList(0, 3)) + "\r\n";
+        Files.writeString(dir.resolve("report-" + crashed.getId() + ".part"), saved + lines.get(3).substring(0, 5));
+        crashed.setStatus(ReportJob.Status.RUNNING);
+        crashed.setLastStudentId(Long.parseLong(lines.get(2).substring(0, lines.get(2).indexOf(','))));
+        crashed.setFileOffset((long) saved.getBytes(StandardCharsets.UTF_8).length);
+        crashed.setProcessedRows(2L);
+        crashed.setTotalRows(5L);
+        reportJobRepository.save(crashed);
+
+        process(crashed.getId());
+
+        assertEquals(expected, Files.readString(service.getReportFile(crashed.getId())));
+        ReportJob resumed = reportJobRepository.findById(crashed.getId()).orElseThrow();
+        assertEquals(ReportJob.Status.COMPLETED, resumed.getStatus());
+        assertEquals(5L, resumed.getProcessedRows());
+        assertFalse(Files.exists(dir.resolve("report-" + crashed.getId() + ".part")));
+    }
+
+    @Test
+    void failedJobCanBeRetriedAndDownloaded() throws Exception {
+        // កាតាឡុកមិនទាន់ផ្ទុក: ការងារត្រូវតែ FAILED ជំនួសឲ្យការសរសេរជួរឈរវគ្គសិក្សាទទេ
+        CourseCatalogService unloaded = new CourseCatalogService();
+        ReflectionTestUtils.setField(unloaded, "courseRepository", courseRepository);
+        service = newService(null, unloaded);
+
+        Long jobId = service.submitReport("Physics", ReportJob.Format.CSV).getId();
+        ReportJob failed = waitForStatus(jobId, ReportJob.Status.FAILED);
+        assertNotNull(failed.getErrorMessage());
+        assertThrows(IllegalStateException.class, () -> service.getReportFile(jobId));
+
+        unloaded.reload();
+        service.retryJob(jobId);
+        waitForStatus(jobId, ReportJob.Status.COMPLETED);
+
+        List<String> lines = Files.readAllLines(service.getReportFile(jobId));
+        assertEquals(4, lines.size());
+        assertTrue(lines.subList(1, 4).stream().allMatch(line -> line.endsWith(",Physics,,CS101,3,100.00")),
+                lines.toString());
+        assertThrows(IllegalStateException.class, () -> service.retryJob(jobId));
+    }
+
+    @Test
+    void shardedReportsOmitCourseColumns() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            shards.add(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("sharding/students-schema.sql")
+                    .build());
+        }
+        shardedStudentRepository = new ShardedStudentRepository(new ArrayList<DataSource>(shards), 0,
+                ShardedStudentRepository.collationOrder("en"));
+        for (int i = 0; i < 4; i++) {
+            shardedStudentRepository.insert(new Student("Shard " + i, "shard" + i + "@example.com", null,
+                    null, "Physics", null));
+        }
+        service = newService(shardedStudentRepository);
+
+        ReportJob job = reportJobRepository.save(new ReportJob(null, ReportJob.Format.CSV));
+        process(job.getId());
+
+        List<String> lines = Files.readAllLines(service.getReportFile(job.getId()));
+        assertEquals("id,name,email,phoneNumber,birthDate,major,address", lines.get(0));
+        assertEquals(5, lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            assertEquals(7, line.split(",", -1).length, line);
+            assertTrue(line.contains("@example.com"));
+        }
+    }
+
+    private ReportJobService newService(ShardedStudentRepository sharded) {
+        return newService(sharded, catalog);
+    }
+
+    private ReportJobService newService(ShardedStudentRepository sharded, CourseCatalogService catalog) {
+        ReportJobService reportJobService = new ReportJobService();
+        ReflectionTestUtils.setField(reportJobService, "reportJobRepository", reportJobRepository);
+        ReflectionTestUtils.setField(reportJobService, "studentRepository", studentRepository);
+        ReflectionTestUtils.setField(reportJobService, "courseCatalogService", catalog);
+        ReflectionTestUtils.setField(reportJobService, "shardedStudentRepository", sharded);
+        ReflectionTestUtils.setField(reportJobService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(reportJobService, "directory", dir.toString());
+        ReflectionTestUtils.setField(reportJobService, "chunkSize", 2);
+        ReflectionTestUtils.setField(reportJobService, "maxConcurrent", 1);
+        reportJobService.init();
+        return reportJobService;
+    }
+
+    private void process(Long jobId) {
+        ReflectionTestUtils.invokeMethod(service, "process", jobId);
+    }
+
+    private ReportJob waitForStatus(Long jobId, ReportJob.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            ReportJob job = reportJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == status) {
+                return job;
+            }
+            assertTrue(System.nanoTime() < deadline, "job " + jobId + " is " + job.getStatus());
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTests {
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            results.add(pool.submit(() -> coalescer.execute(RequestCoalescer.key("count"), () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return 42L;
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> coalescer.execute(RequestCoalescer.key("count"), () -> {
+                    executions.incrementAndGet();
+                    return -1L;
+                })));
+            }
+            // រង់ចាំរហូតដល់អ្នករង់ចាំទាំង 7 បានភ្ជាប់ទៅ flight មុនពេលដោះលែង leader
+            waitUntil(() -> coalescer.getStats().get("requests").equals(8L)
+                    && coalescer.getStats().get("coalesced").equals(7L));
+            release.countDown();
+
+            for (Future<Long> result : results) {
+                assertEquals(42L, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(8L, coalescer.getStats().get("requests"));
+        assertEquals(7L, coalescer.getStats().get("coalesced"));
+    }
+
+    @Test
+    void completedResultsAreNotReusedWithoutTtl() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute(RequestCoalescer.key("k"), executions::incrementAndGet);
+        coalescer.execute(RequestCoalescer.key("k"), executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void invalidateDropsCachedResults() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "ttlMillis", 60_000L);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, coalescer.execute(RequestCoalescer.key("k"), executions::incrementAndGet));
+        assertEquals(1, coalescer.execute(RequestCoalescer.key("k"), executions::incrementAndGet));
+        coalescer.invalidate();
+        assertEquals(2, coalescer.execute(RequestCoalescer.key("k"), executions::incrementAndGet));
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "ttlMillis", 60_000L);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(RequestCoalescer.key("k"), () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", coalescer.execute(RequestCoalescer.key("k"), () -> "ok"));
+    }
+
+    @Test
+    void keysDistinguishNullFromTextAndArgumentBoundaries() {
+        assertNotEquals(RequestCoalescer.key("search", (Object) null), RequestCoalescer.key("search", "null"));
+        assertNotEquals(RequestCoalescer.key("search", "a, b"), RequestCoalescer.key("search", "a", "b"));
+        assertEquals(RequestCoalescer.key("search", "a", 1), RequestCoalescer.key("search", "a", 1));
+    }
+
+    @Test
+    void expiredEntriesAreRemoved() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "ttlMillis", 20L);
+
+        coalescer.execute(RequestCoalescer.key("k", 1), () -> "a");
+        coalescer.execute(RequestCoalescer.key("k", 2), () -> "b");
+        assertEquals(2, coalescer.getStats().get("inFlight"));
+
+        waitUntil(() -> coalescer.getStats().get("inFlight").equals(0));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Student;
+import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// អាន coalesced ដោយគ្មាន open-in-view និងគ្មាន transaction របស់ test (ដូចជា OSIV=false)
+// ttl-ms > 0 ដើម្បីពិនិត្យថាការកែប្រែវគ្គសិក្សាសម្អាតលទ្ធផលដែលបានរក្សាទុក
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.open-in-view=false",
+        "app.coalescing.ttl-ms=60000"
+})
+@Import({StudentService.class, RequestCoalescer.class, CourseCatalogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentServiceCoalescingTests {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private Course course;
+    private Student dara;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Programming", "CS101", 3, new BigDecimal("100.00"), null));
+        dara = new Student("Dara", "dara@example.com", null, LocalDate.of(2001, 2, 3), "Physics", null);
+        dara.getCourses().add(course);
+        dara = studentRepository.save(dara);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescedReadsLoadCoursesWithoutOpenSession() {
+        Student byId = (Student) studentService.getStudentById(dara.getId()).orElseThrow();
+        assertEquals(List.of("CS101"), byId.getCourses().stream().map(Course::getCourseCode).toList());
+
+        List<Student> byMajor = studentService.getStudentsByMajor("Physics");
+        assertEquals(1, byMajor.get(0).getCourses().size());
+
+        Page<Student> page = studentService.getAllStudentsPaginated(0, 10, "name", "asc");
+        assertEquals("CS101", page.getContent().get(0).getCourses().iterator().next().getCourseCode());
+
+        List<Student> recent = studentService.getRecentStudents();
+        assertEquals(1, recent.get(0).getCourses().size());
+    }
+
+    @Test
+    void courseWritesInvalidateCoalescedResults() {
+        Student before = (Student) studentService.getStudentById(dara.getId()).orElseThrow();
+        assertEquals(new BigDecimal("100.00"), before.getCourses().iterator().next().getPrice());
+
+        course.setPrice(new BigDecimal("120.00"));
+        courseRepository.save(course);
+
+        Student after = (Student) studentService.getStudentById(dara.getId()).orElseThrow();
+        assertEquals(new BigDecimal("120.00"), after.getCourses().iterator().next().getPrice());
+    }
+}
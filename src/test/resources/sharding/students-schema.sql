@@ -0,0 +1,13 @@
+-- ដូច utf8mb4_0900_ai_ci: មិនខ្វល់ពីអក្សរធំតូច និងសញ្ញាសំឡេង (ត្រូវតែមុនពេលបង្កើតតារាង)
+SET COLLATION ENGLISH STRENGTH PRIMARY;
+CREATE TABLE students (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_name VARCHAR(100) NOT NULL,
+    student_email VARCHAR(255) NOT NULL UNIQUE,
+    phone_number VARCHAR(15),
+    birth_date DATE,
+    major VARCHAR(50),
+    address TEXT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);